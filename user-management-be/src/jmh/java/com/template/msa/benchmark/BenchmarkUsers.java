@@ -0,0 +1,27 @@
+package com.template.msa.benchmark;
+
+import com.template.msa.model.Role;
+import com.template.msa.model.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fixture users shared by the benchmarks.
+ */
+public final class BenchmarkUsers {
+
+    private BenchmarkUsers() {
+    }
+
+    public static User user(Long id, Role role) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("bench" + id);
+        user.setEmail("bench" + id + "@example.com");
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z5Fh3Mj6t1dWnZWDkzGq3F2a");
+        user.setRole(role);
+        user.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        user.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        return user;
+    }
+}
@@ -0,0 +1,80 @@
+package com.template.msa.security;
+
+import com.template.msa.benchmark.BenchmarkUsers;
+import com.template.msa.model.Role;
+import com.template.msa.model.User;
+import com.template.msa.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * One authenticated request through {@link JwtAuthenticationFilter#doFilterInternal} with a no-op
+ * chain, in stateless mode and in the mode that loads the user for every request. Lives in the
+ * filter's package to call the protected method directly, skipping the once-per-request bookkeeping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET_KEY = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    @Param({"true", "false"})
+    public boolean statelessAuth;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+
+    @Setup
+    public void setUp() {
+        User user = BenchmarkUsers.user(1L, Role.USER);
+        JwtService jwtService = new JwtService(SECRET_KEY, 3_600_000, 10_000);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findSecurityVersionById(anyLong())).thenReturn(Optional.of(0));
+        SecurityVersionRegistry registry = new SecurityVersionRegistry(userRepository, new InProcessUserChangeBus(),
+                10_000, Duration.ofMinutes(5));
+
+        // The database path is represented by an in-memory lookup, so this measures the filter itself
+        TokenDenylist denylist = new TokenDenylist(new SimpleMeterRegistry(), 0.01);
+        filter = new JwtAuthenticationFilter(jwtService, email -> user, registry, denylist, statelessAuth);
+        request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.addHeader("Authorization", "Bearer " + jwtService.generateToken(user));
+        response = new MockHttpServletResponse();
+        chain = (req, res) -> { };
+    }
+
+    @Benchmark
+    public Authentication filter() throws Exception {
+        SecurityContextHolder.clearContext();
+        filter.doFilterInternal(request, response, chain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -1,13 +0,0 @@
-package com.template.msa;
-
-import org.springframework.boot.SpringApplication;
-import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
-
-@SpringBootApplication
-@EnableJpaAuditing
-public class MicroserviceApplication {
-    public static void main(String[] args) {
-        SpringApplication.run(MicroserviceApplication.class, args);
-    }
-} 
\ No newline at end of file
@@ -0,0 +1,107 @@
+package com.template.msa.actuator;
+
+import com.template.msa.monitoring.StatementsPerRequestFilter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/hibernate}: Hibernate session factory statistics since startup or the last reset,
+ * with queries and entity loads per request. A DELETE resets them, e.g. before a load test.
+ * Requires {@code hibernate.generate_statistics=true}; otherwise every count stays 0.
+ */
+@Component
+@Endpoint(id = "hibernate")
+public class HibernateStatisticsEndpoint {
+
+    private final Statistics statistics;
+    private final MeterRegistry meterRegistry;
+    private volatile long requestsAtReset;
+
+    public HibernateStatisticsEndpoint(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", statistics.isStatisticsEnabled());
+        result.put("since", statistics.getStart());
+        result.put("requests", requests());
+
+        Map<String, Object> queries = new LinkedHashMap<>();
+        queries.put("executions", statistics.getQueryExecutionCount());
+        queries.put("maxTimeMs", statistics.getQueryExecutionMaxTime());
+        queries.put("slowest", statistics.getQueryExecutionMaxTimeQueryString());
+        queries.put("preparedStatements", statistics.getPrepareStatementCount());
+        queries.put("naturalIdExecutions", statistics.getNaturalIdQueryExecutionCount());
+        result.put("queries", queries);
+
+        Map<String, Object> entities = new LinkedHashMap<>();
+        entities.put("loads", statistics.getEntityLoadCount());
+        entities.put("fetches", statistics.getEntityFetchCount());
+        entities.put("inserts", statistics.getEntityInsertCount());
+        entities.put("updates", statistics.getEntityUpdateCount());
+        entities.put("deletes", statistics.getEntityDeleteCount());
+        entities.put("optimisticFailures", statistics.getOptimisticFailureCount());
+        result.put("entities", entities);
+
+        Map<String, Object> cache = new LinkedHashMap<>();
+        cache.put("hits", statistics.getSecondLevelCacheHitCount());
+        cache.put("misses", statistics.getSecondLevelCacheMissCount());
+        cache.put("puts", statistics.getSecondLevelCachePutCount());
+        cache.put("naturalIdHits", statistics.getNaturalIdCacheHitCount());
+        cache.put("naturalIdMisses", statistics.getNaturalIdCacheMissCount());
+        result.put("secondLevelCache", cache);
+
+        Map<String, Object> sessions = new LinkedHashMap<>();
+        sessions.put("opened", statistics.getSessionOpenCount());
+        sessions.put("transactions", statistics.getTransactionCount());
+        sessions.put("flushes", statistics.getFlushCount());
+        sessions.put("connections", statistics.getConnectCount());
+        result.put("sessions", sessions);
+        return result;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        statistics.clear();
+        requestsAtReset = requestCount(statementsPerRequest());
+    }
+
+    /**
+     * Queries and entity loads averaged over the requests served since the last reset. Statement counts
+     * come from {@code jdbc.statements.per.request}, which a reset does not clear.
+     */
+    private Map<String, Object> requests() {
+        Map<String, Object> requests = new LinkedHashMap<>();
+        DistributionSummary statements = statementsPerRequest();
+        long count = requestCount(statements) - requestsAtReset;
+        requests.put("count", count);
+        if (count > 0) {
+            requests.put("queriesMean", (double) statistics.getQueryExecutionCount() / count);
+            requests.put("entityLoadsMean", (double) statistics.getEntityLoadCount() / count);
+            requests.put("statementsMean", statements.mean());
+            requests.put("statementsMax", statements.max());
+        }
+        return requests;
+    }
+
+    private DistributionSummary statementsPerRequest() {
+        return meterRegistry.find(StatementsPerRequestFilter.METER).summary();
+    }
+
+    private static long requestCount(DistributionSummary statements) {
+        return statements == null ? 0 : statements.count();
+    }
+}
@@ -0,0 +1,55 @@
+package com.template.msa.config;
+
+import com.template.msa.security.JwtKeySet;
+import com.template.msa.security.JwtSigningProperties;
+import com.template.msa.security.OffloadingPasswordEncoder;
+import com.template.msa.security.PasswordHashingExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Authentication infrastructure shared by the security filter chain and the services.
+ */
+@Configuration
+@EnableConfigurationProperties(JwtSigningProperties.class)
+public class ApplicationConfig {
+
+    /**
+     * Token keys, parsed once. Fails startup if a configured key is unreadable.
+     */
+    @Bean
+    public JwtKeySet jwtKeySet(JwtSigningProperties properties, @Value("${jwt.secret}") String secret) {
+        return JwtKeySet.load(properties, secret);
+    }
+
+    /**
+     * BCrypt, with every hash and verification offloaded to the dedicated hashing pool.
+     */
+    @Bean
+    public OffloadingPasswordEncoder passwordEncoder(PasswordHashingExecutor passwordHashingExecutor) {
+        return new OffloadingPasswordEncoder(new BCryptPasswordEncoder(), passwordHashingExecutor);
+    }
+
+    @Bean
+    public AuthenticationProvider authenticationProvider(UserDetailsService userDetailsService,
+                                                         PasswordEncoder passwordEncoder) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder);
+        return provider;
+    }
+
+    @Bean
+    public AuthenticationManager authenticationManager(AuthenticationConfiguration configuration) throws Exception {
+        return configuration.getAuthenticationManager();
+    }
+}
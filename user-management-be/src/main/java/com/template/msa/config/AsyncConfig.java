@@ -0,0 +1,15 @@
+package com.template.msa.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Enables {@code @Async} on the auto-configured {@code applicationTaskExecutor}.
+ * With {@code spring.threads.virtual.enabled=true} that executor starts a virtual thread per task,
+ * bounded by {@code spring.task.execution.simple.concurrency-limit}; otherwise it is the usual
+ * platform thread pool sized by {@code spring.task.execution.pool.*}.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
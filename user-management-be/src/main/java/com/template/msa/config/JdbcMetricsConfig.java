@@ -0,0 +1,46 @@
+package com.template.msa.config;
+
+import com.template.msa.monitoring.DataSourceInstrumentation;
+import com.template.msa.monitoring.RepositoryMethodTracking;
+import com.template.msa.monitoring.StatementsPerRequestFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * JDBC statement timing per repository method, pool saturation and statements per request.
+ * Disable with {@code jdbc.metrics.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "jdbc.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class JdbcMetricsConfig {
+
+    // Post-processors are static so they don't force this configuration to be created early
+
+    @Bean
+    public static RepositoryMethodTracking repositoryMethodTracking() {
+        return new RepositoryMethodTracking();
+    }
+
+    @Bean
+    public static DataSourceInstrumentation dataSourceInstrumentation(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${jdbc.slow-statement.threshold:500ms}") Duration slowThreshold) {
+        return new DataSourceInstrumentation(meterRegistry, slowThreshold);
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementsPerRequestFilter> statementsPerRequestFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<StatementsPerRequestFilter> registration =
+                new FilterRegistrationBean<>(new StatementsPerRequestFilter(meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
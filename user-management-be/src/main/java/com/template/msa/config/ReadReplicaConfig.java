@@ -0,0 +1,91 @@
+package com.template.msa.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends read-only transactions to read replicas when {@code datasource.replica.urls} is set.
+ * The application DataSource is a {@link LazyConnectionDataSourceProxy}: it fetches the physical
+ * connection on the first statement, by which time the transaction manager has marked the connection
+ * read-only, and takes it from the replicas, round robin, if so. Everything else uses the primary pool.
+ * Replicas share the primary's credentials and Hikari settings apart from the pool size.
+ * <p>
+ * Entities read on a replica are kept out of the second-level cache ({@link ReplicaJpaDialect}), and
+ * lookups that must see the latest writes, such as authentication, use read-write transactions.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.urls")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public RoundRobinDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Value("${datasource.replica.urls}") List<String> urls,
+            @Value("${datasource.replica.maximum-pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int maximumPoolSize,
+            @Value("${spring.datasource.hikari.connection-timeout:30000}") long connectionTimeout,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        List<DataSource> pools = new ArrayList<>();
+        for (String url : urls) {
+            HikariDataSource pool = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(url.trim())
+                    .build();
+            pool.setPoolName("replica-" + (pools.size() + 1));
+            pool.setMaximumPoolSize(maximumPoolSize);
+            pool.setConnectionTimeout(connectionTimeout);
+            pool.setReadOnly(true);
+            meterRegistry.ifAvailable(registry -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            pools.add(pool);
+        }
+        return new RoundRobinDataSource(pools);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, RoundRobinDataSource replicaDataSource) {
+        return routing(primaryDataSource, replicaDataSource);
+    }
+
+    @Bean
+    public static BeanPostProcessor replicaJpaDialect() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractEntityManagerFactoryBean entityManagerFactory) {
+                    entityManagerFactory.setJpaDialect(new ReplicaJpaDialect());
+                }
+                return bean;
+            }
+        };
+    }
+
+    static LazyConnectionDataSourceProxy routing(DataSource primary, DataSource replicas) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(replicas);
+        return dataSource;
+    }
+}
@@ -0,0 +1,49 @@
+package com.template.msa.config;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+
+/**
+ * {@link HibernateJpaDialect} for a primary with read replicas. Read-only transactions run on a replica,
+ * which may lag behind the primary, so they read the second-level cache but never put what they loaded
+ * into it; the cache is only filled from the primary.
+ * <p>
+ * The store mode is set as an entity manager property rather than a Hibernate cache mode on the session:
+ * {@code find} with hints, as Spring Data calls it, recomputes the cache mode from these properties.
+ */
+class ReplicaJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly()) {
+            return transactionData;
+        }
+        Object previous = entityManager.getProperties().get(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE);
+        entityManager.setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        return new ReadOnlyTransactionData(transactionData, entityManager,
+                previous != null ? previous : CacheStoreMode.USE);
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof ReadOnlyTransactionData readOnly) {
+            if (readOnly.entityManager().isOpen()) {
+                readOnly.entityManager().setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE,
+                        readOnly.previousStoreMode());
+            }
+            super.cleanupTransaction(readOnly.delegate());
+        } else {
+            super.cleanupTransaction(transactionData);
+        }
+    }
+
+    private record ReadOnlyTransactionData(Object delegate, EntityManager entityManager, Object previousStoreMode) {
+    }
+}
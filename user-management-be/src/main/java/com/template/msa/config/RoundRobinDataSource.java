@@ -0,0 +1,53 @@
+package com.template.msa.config;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections from several equivalent pools in turn, e.g. one pool per read replica.
+ * Closing it closes the pools.
+ */
+public class RoundRobinDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private final List<DataSource> targets;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public RoundRobinDataSource(List<DataSource> targets) {
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("At least one target data source is required");
+        }
+        this.targets = List.copyOf(targets);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return nextTarget().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return nextTarget().getConnection(username, password);
+    }
+
+    public List<DataSource> getTargets() {
+        return targets;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource target : targets) {
+            if (target instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private DataSource nextTarget() {
+        return targets.get(Math.floorMod(next.getAndIncrement(), targets.size()));
+    }
+}
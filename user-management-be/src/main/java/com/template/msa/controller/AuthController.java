@@ -1,81 +1,137 @@
 package com.template.msa.controller;
 
+import com.template.msa.dto.ApiResponse;
+import com.template.msa.dto.LoginRequest;
+import com.template.msa.dto.LoginResponse;
+import com.template.msa.dto.RefreshTokenRequest;
+import com.template.msa.dto.RefreshTokenResponse;
 import com.template.msa.model.User;
 import com.template.msa.security.JwtService;
+import com.template.msa.security.LoginThrottle;
+import com.template.msa.service.RefreshTokenService;
+import com.template.msa.service.TokenRevocationService;
+import com.template.msa.service.UserService;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * REST controller for handling authentication operations.
- * Provides endpoints for user registration and login.
+ * Provides endpoints for user registration, login and token refresh.
+ * Mapped under both {@code /api/auth} and {@code /api/v1/auth}, the prefix the frontend uses for refresh.
  *
  * @author Template Team
  * @version 1.0
  */
 @RestController
-@RequestMapping("/api/auth")
+@RequestMapping({"/api/auth", "/api/v1/auth"})
 @RequiredArgsConstructor
 public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
-    private final PasswordEncoder passwordEncoder;
     private final UserService userService;
+    private final LoginThrottle loginThrottle;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
 
     /**
      * POST /api/auth/register : Register a new user.
      *
      * @param user the user to register
-     * @return ResponseEntity with status 200 (OK) and the JWT token in body
+     * @return ResponseEntity with status 200 (OK) and the access and refresh tokens in body
      * @response 200 User registered successfully
      * @response 400 Bad Request - Invalid user data
      * @response 409 Conflict - Email already exists
      */
     @PostMapping("/register")
-    public ResponseEntity<Map<String, String>> register(@RequestBody User user) {
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        User savedUser = userService.createUser(user);
-        
-        String token = jwtService.generateToken(savedUser);
-        Map<String, String> response = new HashMap<>();
-        response.put("token", token);
-        
-        return ResponseEntity.ok(response);
+    public ResponseEntity<LoginResponse> register(@RequestBody User user) {
+        // UserService hashes the raw password; encoding here as well would store a hash of a hash
+        User savedUser = userService.create(user);
+        return ResponseEntity.ok(loginResponse(savedUser));
     }
 
     /**
      * POST /api/auth/login : Authenticate a user and get JWT token.
      *
      * @param request the login request containing email and password
-     * @return ResponseEntity with status 200 (OK) and the JWT token in body
+     * @param httpRequest the servlet request, for the client address
+     * @return ResponseEntity with status 200 (OK) and the access and refresh tokens in body
      * @response 200 User authenticated successfully
      * @response 400 Bad Request - Invalid credentials
      * @response 401 Unauthorized - Invalid credentials
+     * @response 429 Too Many Requests - Login attempts exceeded for this account or address
      */
     @PostMapping("/login")
-    public ResponseEntity<Map<String, String>> login(@RequestBody LoginRequest request) {
-        authenticationManager.authenticate(
+    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request,
+                                                     HttpServletRequest httpRequest) {
+        // Throttle before the password check so rejected attempts cost no BCrypt work
+        loginThrottle.check(request.getEmail(), httpRequest.getRemoteAddr());
+        Authentication authentication = authenticationManager.authenticate(
             new UsernamePasswordAuthenticationToken(
                 request.getEmail(),
                 request.getPassword()
             )
         );
         
-        User user = userService.findByEmail(request.getEmail());
-        String token = jwtService.generateToken(user);
-        
-        Map<String, String> response = new HashMap<>();
-        response.put("token", token);
-        
-        return ResponseEntity.ok(response);
+        User user = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(loginResponse(user));
+    }
+
+    /**
+     * POST /api/v1/auth/refresh : Exchange a refresh token for a new access token and refresh token.
+     * The presented refresh token is used up; presenting it again revokes every token from that login.
+     *
+     * @param request the refresh token from the last login or refresh
+     * @return ResponseEntity with status 200 (OK) and the new token pair in body
+     * @response 200 Tokens refreshed
+     * @response 401 Unauthorized - Refresh token unknown, expired or already used
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<RefreshTokenResponse>> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(refreshTokenService.rotate(request.getRefreshToken())));
+    }
+
+    /**
+     * POST /api/v1/auth/logout : Revoke the presented access token and, if given, the refresh token
+     * together with every other token from the same login.
+     *
+     * @param authorization the Bearer access token to revoke
+     * @param request the refresh token to revoke, optional
+     * @return ResponseEntity with status 204 (No Content)
+     * @response 204 Tokens revoked, or nothing to revoke
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                       @RequestBody(required = false) RefreshTokenRequest request) {
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            try {
+                tokenRevocationService.revoke(jwtService.extractAllClaims(authorization.substring(7)));
+            } catch (JwtException | IllegalArgumentException e) {
+                // Already invalid: nothing to revoke
+            }
+        }
+        if (request != null && request.getRefreshToken() != null) {
+            refreshTokenService.revoke(request.getRefreshToken());
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    private LoginResponse loginResponse(User user) {
+        return new LoginResponse(
+                jwtService.generateToken(user),
+                refreshTokenService.issue(user),
+                new LoginResponse.UserDto(user.getId(), user.getDisplayUsername(), user.getEmail(),
+                        user.getRole().name()));
     }
 } 
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.template.msa.controller;
+
+import com.template.msa.security.JwtKeySet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Publishes the token verification keys so other services can check access tokens locally.
+ */
+@RestController
+public class JwksController {
+
+    private final JwtKeySet keySet;
+    private final CacheControl cacheControl;
+    private final String etag;
+
+    public JwksController(JwtKeySet keySet, @Value("${jwt.jwks.max-age:PT15M}") Duration maxAge) {
+        this.keySet = keySet;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+        this.etag = "\"" + Integer.toHexString(keySet.getJwks().hashCode()) + "\"";
+    }
+
+    /**
+     * GET /.well-known/jwks.json : The public signing keys as a JWK Set (RFC 7517).
+     * The set only changes on restart, so clients may cache it for {@code jwt.jwks.max-age}
+     * and revalidate with If-None-Match. A token with an unknown {@code kid} is the signal to refetch.
+     *
+     * @param request the current request, for conditional GET
+     * @return the ResponseEntity with status 200 (OK) and the key set, or 304 (Not Modified)
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJwks(WebRequest request) {
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(etag)
+                .body(keySet.getJwks());
+    }
+}
@@ -1,14 +1,37 @@
 package com.template.msa.controller;
 
+import com.template.msa.dto.CursorPage;
+import com.template.msa.dto.UserField;
+import com.template.msa.dto.UserImportReport;
+import com.template.msa.dto.UserPatch;
+import com.template.msa.dto.UserResponse;
+import com.template.msa.dto.UserSearchCriteria;
+import com.template.msa.dto.UserStats;
+import com.template.msa.model.Role;
 import com.template.msa.model.User;
+import com.template.msa.repository.UserRepository;
+import com.template.msa.security.AuthenticatedUser;
+import com.template.msa.security.CurrentUser;
+import com.template.msa.service.UserExportService;
+import com.template.msa.service.UserFileFormat;
+import com.template.msa.service.UserImportService;
 import com.template.msa.service.UserService;
+import com.template.msa.service.UserStatsService;
+import com.template.msa.util.EntityTags;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
 
 /**
  * REST controller for managing users.
@@ -21,34 +44,156 @@ import java.util.List;
 @RequestMapping("/api/users")
 public class UserController {
 
+    /** Clients may keep user representations but must revalidate them before each use. */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    /** RFC 7386 JSON Merge Patch. */
+    static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
     private final UserService userService;
+    private final UserExportService userExportService;
+    private final UserImportService userImportService;
+    private final UserStatsService userStatsService;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService,
+                          UserExportService userExportService,
+                          UserImportService userImportService,
+                          UserStatsService userStatsService) {
         this.userService = userService;
+        this.userExportService = userExportService;
+        this.userImportService = userImportService;
+        this.userStatsService = userStatsService;
     }
 
     /**
-     * GET /api/users : Get all users.
+     * GET /api/users : Get a page of users.
      *
-     * @return the ResponseEntity with status 200 (OK) and the list of users
+     * @param cursor the opaque cursor returned as {@code next} by the previous page
+     * @param limit the maximum number of users to return
+     * @param count whether to include the total number of users
+     * @param fields comma-separated fields to return, e.g. {@code id,username}; omit for all
+     * @param request the current request, for conditional GET
+     * @return the ResponseEntity with status 200 (OK) and the page of users, or 304 (Not Modified)
      */
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userService.findAll());
+    public ResponseEntity<CursorPage<UserResponse>> getAllUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + UserService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(defaultValue = "false") boolean count,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        Set<UserField> fieldSet = UserField.parse(fields);
+        String etag = userService.getPageTag(cursor, limit, count, fieldSet);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .eTag(etag)
+                .body(userService.findPage(cursor, limit, count, fieldSet));
+    }
+
+    /**
+     * GET /api/users/search : Search users by username or email.
+     *
+     * @param q text to look for in username and email, case-insensitive; omit to list everyone
+     * @param match prefix, or contains (default) which needs at least three characters
+     * @param role only return users with this role
+     * @param sort the field to sort by (id, username, email or createdAt), optionally followed by ,asc or ,desc
+     * @param cursor the opaque cursor returned as {@code next} by the previous page of the same search
+     * @param limit the maximum number of users to return
+     * @param count whether to include the total number of matching users
+     * @param fields comma-separated fields to return, e.g. {@code id,username}; omit for all
+     * @return the ResponseEntity with status 200 (OK) and the page of matching users
+     */
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<UserResponse>> searchUsers(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "contains") String match,
+            @RequestParam(required = false) Role role,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + UserService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(defaultValue = "false") boolean count,
+            @RequestParam(required = false) String fields) {
+        UserSearchCriteria criteria = UserSearchCriteria.of(q, match, role, sort);
+        return ResponseEntity.ok(userService.search(criteria, cursor, limit, count, UserField.parse(fields)));
+    }
+
+    /**
+     * GET /api/users/stats : Get users per role and daily signups for the dashboard.
+     * Served from counters maintained on every write, so the cost does not grow with the number of users.
+     *
+     * @param days how many days of signups to return, ending today
+     * @return the ResponseEntity with status 200 (OK) and the statistics
+     */
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserStats> getStats(
+            @RequestParam(defaultValue = "" + UserStatsService.DEFAULT_DAYS) int days) {
+        return ResponseEntity.ok(userStatsService.getStats(days));
+    }
+
+    /**
+     * GET /api/users/export : Stream every user as NDJSON or CSV.
+     *
+     * @param format the export format, ndjson (default) or csv
+     * @return the ResponseEntity with status 200 (OK) and the streamed user directory
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "ndjson") String format) {
+        UserFileFormat exportFormat = UserFileFormat.valueOf(format.toUpperCase());
+        StreamingResponseBody body = out -> userExportService.export(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"users." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    /**
+     * POST /api/users/import : Create users in bulk from a streamed CSV or NDJSON upload.
+     *
+     * @param contentType the upload format, text/csv or application/x-ndjson
+     * @param body the uploaded file
+     * @return the ResponseEntity with status 200 (OK) and the per-row import report, also when a record
+     *         could not be parsed and the import stopped there
+     * @throws IOException if the start of the upload cannot be read
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserImportReport> importUsers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) throws IOException {
+        return ResponseEntity.ok(userImportService.importUsers(UserFileFormat.fromMediaType(contentType), body));
     }
 
     /**
      * GET /api/users/{id} : Get user by ID.
      *
+     * The If-None-Match / If-Modified-Since check reads only the user's version and modification time.
+     *
      * @param id the ID of the user to retrieve
-     * @return the ResponseEntity with status 200 (OK) and the user, or status 404 (Not Found)
+     * @param fields comma-separated fields to return, e.g. {@code id,username}; omit for all
+     * @param request the current request, for conditional GET
+     * @return the ResponseEntity with status 200 (OK) and the user, 304 (Not Modified), or 404 (Not Found)
      */
     @GetMapping("/{id}")
-    @PreAuthorize("hasRole('ADMIN') or @userService.isCurrentUser(#id)")
-    public ResponseEntity<User> getUserById(@PathVariable Long id) {
-        return ResponseEntity.ok(userService.findById(id));
+    @PreAuthorize("hasRole('ADMIN') or @currentUser.isSelf(#id)")
+    public ResponseEntity<UserResponse> getUserById(@PathVariable Long id,
+                                                    @RequestParam(required = false) String fields,
+                                                    WebRequest request) {
+        Set<UserField> fieldSet = UserField.parse(fields);
+        UserRepository.VersionView version = userService.getVersion(id);
+        if (request.checkNotModified(EntityTags.of(id, version.getVersion(), UserField.variant(fieldSet)),
+                EntityTags.toEpochMilli(version.getUpdatedAt()))) {
+            return null;
+        }
+        return withValidators(userService.findResponseById(id, fieldSet), fieldSet);
     }
 
     /**
@@ -59,8 +204,8 @@ public class UserController {
      */
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<User> createUser(@Valid @RequestBody User user) {
-        return ResponseEntity.ok(userService.create(user));
+    public ResponseEntity<UserResponse> createUser(@Valid @RequestBody User user) {
+        return ResponseEntity.ok(UserResponse.from(userService.create(user)));
     }
 
     /**
@@ -71,9 +216,30 @@ public class UserController {
      * @return the ResponseEntity with status 200 (OK) and the updated user
      */
     @PutMapping("/{id}")
-    @PreAuthorize("hasRole('ADMIN') or @userService.isCurrentUser(#id)")
-    public ResponseEntity<User> updateUser(@PathVariable Long id, @Valid @RequestBody User user) {
-        return ResponseEntity.ok(userService.update(id, user));
+    @PreAuthorize("hasRole('ADMIN') or @currentUser.isSelf(#id)")
+    public ResponseEntity<UserResponse> updateUser(@PathVariable Long id, @Valid @RequestBody User user) {
+        return ResponseEntity.ok(UserResponse.from(userService.update(id, user)));
+    }
+
+    /**
+     * PATCH /api/users/{id} : Partially update a user with a JSON Merge Patch.
+     * Only the members present in the body change; the UPDATE writes only those columns.
+     * Send the user's ETag in If-Match to fail instead of overwriting someone else's change.
+     * Only admins can change a role.
+     *
+     * @param id the ID of the user to patch
+     * @param ifMatch the entity tag the change is based on, optional
+     * @param patch the members to change
+     * @return the ResponseEntity with status 200 (OK) and the patched user with its new ETag
+     * @response 400 Bad Request - A member is null, invalid or cannot be patched
+     * @response 412 Precondition Failed - The user changed since the If-Match tag was issued
+     */
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN') or (@currentUser.isSelf(#id) and #patch.role == null)")
+    public ResponseEntity<UserResponse> patchUser(@PathVariable Long id,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                  @Valid @RequestBody UserPatch patch) {
+        return withValidators(UserResponse.from(userService.patch(id, patch, ifMatch)), UserField.ALL);
     }
 
     /**
@@ -89,13 +255,50 @@ public class UserController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * DELETE /api/users/{id}/sessions : Revoke every access and refresh token of a user.
+     *
+     * @param id the ID of the user
+     * @return the ResponseEntity with status 204 (No Content)
+     */
+    @DeleteMapping("/{id}/sessions")
+    @PreAuthorize("hasRole('ADMIN') or @currentUser.isSelf(#id)")
+    public ResponseEntity<Void> revokeSessions(@PathVariable Long id) {
+        userService.revokeSessions(id);
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * GET /api/users/me : Get current user.
      *
-     * @return the ResponseEntity with status 200 (OK) and the current user
+     * The user comes from the second-level cache, so a revalidation costs neither a query nor serialization.
+     *
+     * @param currentUser the authenticated caller
+     * @param fields comma-separated fields to return, e.g. {@code id,username}; omit for all
+     * @param request the current request, for conditional GET
+     * @return the ResponseEntity with status 200 (OK) and the current user, or 304 (Not Modified)
      */
     @GetMapping("/me")
-    public ResponseEntity<User> getCurrentUser() {
-        return ResponseEntity.ok(userService.getCurrentUser());
+    public ResponseEntity<UserResponse> getCurrentUser(@CurrentUser AuthenticatedUser currentUser,
+                                                       @RequestParam(required = false) String fields,
+                                                       WebRequest request) {
+        Set<UserField> fieldSet = UserField.parse(fields);
+        User user = userService.getCurrentUser(currentUser);
+        if (request.checkNotModified(EntityTags.of(user.getId(), user.getVersion(), UserField.variant(fieldSet)),
+                EntityTags.toEpochMilli(user.getUpdatedAt()))) {
+            return null;
+        }
+        return withValidators(UserResponse.from(user), fieldSet);
+    }
+
+    /**
+     * Add the validators of {@code user}, then trim it to the requested fields.
+     */
+    private static ResponseEntity<UserResponse> withValidators(UserResponse user, Set<UserField> fields) {
+        return ResponseEntity.ok()
+                .cacheControl(REVALIDATE)
+                .eTag(EntityTags.of(user.getId(), user.getVersion(), UserField.variant(fields)))
+                .lastModified(EntityTags.toEpochMilli(user.getUpdatedAt()))
+                .body(user.retain(fields));
     }
 } 
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.template.msa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ * {@code next} is an opaque cursor for the following page and is {@code null} on the last page;
+ * {@code total} is only populated when the caller asked for a count.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String next;
+    private Long total;
+}
@@ -0,0 +1,90 @@
+package com.template.msa.dto;
+
+import com.template.msa.exception.BadRequestException;
+import com.template.msa.model.Role;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The fields of {@link UserResponse} a client can ask for with {@code ?fields=}.
+ * Each one maps to a single column, so a sparse fieldset narrows the SELECT as well as the JSON.
+ */
+public enum UserField {
+    ID("id", UserResponse::getId, (user, value) -> user.setId((Long) value)),
+    USERNAME("username", UserResponse::getUsername, (user, value) -> user.setUsername((String) value)),
+    EMAIL("email", UserResponse::getEmail, (user, value) -> user.setEmail((String) value)),
+    ROLE("role", UserResponse::getRole, (user, value) -> user.setRole((Role) value)),
+    CREATED_AT("createdAt", UserResponse::getCreatedAt, (user, value) -> user.setCreatedAt((LocalDateTime) value)),
+    UPDATED_AT("updatedAt", UserResponse::getUpdatedAt, (user, value) -> user.setUpdatedAt((LocalDateTime) value));
+
+    public static final Set<UserField> ALL = Collections.unmodifiableSet(EnumSet.allOf(UserField.class));
+
+    private final String attribute;
+    private final Function<UserResponse, Object> getter;
+    private final BiConsumer<UserResponse, Object> setter;
+
+    UserField(String attribute, Function<UserResponse, Object> getter, BiConsumer<UserResponse, Object> setter) {
+        this.attribute = attribute;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /** The entity attribute, which is also the JSON property name. */
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public Object get(UserResponse user) {
+        return getter.apply(user);
+    }
+
+    public void set(UserResponse user, Object value) {
+        setter.accept(user, value);
+    }
+
+    /**
+     * Parse a comma-separated fieldset such as {@code id,username}.
+     *
+     * @param fields the requested fields, or null/blank for all of them
+     * @throws BadRequestException if a field is unknown
+     */
+    public static Set<UserField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<UserField> parsed = EnumSet.noneOf(UserField.class);
+        for (String name : fields.split(",")) {
+            parsed.add(fromAttribute(name.trim()));
+        }
+        if (parsed.isEmpty()) {
+            throw new BadRequestException("No user fields requested");
+        }
+        return parsed;
+    }
+
+    /**
+     * A stable key for a fieldset, empty for all fields, to tell representations apart in entity tags.
+     */
+    public static String variant(Set<UserField> fields) {
+        if (fields.size() == ALL.size()) {
+            return "";
+        }
+        return fields.stream().map(UserField::getAttribute).collect(Collectors.joining(".", "+", ""));
+    }
+
+    static UserField fromAttribute(String attribute) {
+        for (UserField field : values()) {
+            if (field.attribute.equalsIgnoreCase(attribute)) {
+                return field;
+            }
+        }
+        throw new BadRequestException("Unknown user field: " + attribute.toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,45 @@
+package com.template.msa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk user import, with one entry per rejected row.
+ */
+@Data
+@NoArgsConstructor
+public class UserImportReport {
+    private long received;
+    private long created;
+    private long failed;
+    private List<RowError> errors = new ArrayList<>();
+    /**
+     * Record that could not be parsed, at which the import stopped, or null if the whole file was read.
+     * Records before it were imported or rejected as usual; records after it were not read.
+     */
+    private Long stoppedAtRow;
+
+    public void addError(long row, String field, String message) {
+        errors.add(new RowError(row, field, message));
+        failed++;
+    }
+
+    public void stopAt(long row, String message) {
+        stoppedAtRow = row;
+        addError(row, null, message);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        /** 1-based record number in the uploaded file, not counting a CSV header. */
+        private long row;
+        private String field;
+        private String message;
+    }
+}
@@ -0,0 +1,33 @@
+package com.template.msa.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One user record of a bulk import file.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportRow {
+    @NotBlank(message = "Username is required")
+    @Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters")
+    private String username;
+
+    @NotBlank(message = "Email is required")
+    @Size(max = 100, message = "Email must be at most 100 characters")
+    @Email(message = "Invalid email format")
+    private String email;
+
+    @NotBlank(message = "Password is required")
+    @Size(min = 6, max = 100, message = "Password must be between 6 and 100 characters")
+    private String password;
+
+    @Pattern(regexp = "^(USER|ADMIN)?$", message = "Invalid role specified")
+    private String role;
+}
@@ -0,0 +1,43 @@
+package com.template.msa.dto;
+
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
+import com.template.msa.exception.BadRequestException;
+import com.template.msa.model.Role;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A JSON Merge Patch (RFC 7386) of a user: present members replace the current value, absent ones
+ * stay null here and leave the user unchanged. Every patchable field is required, so {@code null},
+ * which would remove the member, is rejected, as is any member that cannot be patched.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPatch {
+    @JsonSetter(nulls = Nulls.FAIL)
+    @Size(min = 3, max = 50)
+    private String username;
+
+    @JsonSetter(nulls = Nulls.FAIL)
+    @Size(min = 3, max = 100)
+    @Email
+    private String email;
+
+    @JsonSetter(nulls = Nulls.FAIL)
+    @Size(min = 6, max = 100)
+    private String password;
+
+    @JsonSetter(nulls = Nulls.FAIL)
+    private Role role;
+
+    @JsonAnySetter
+    void rejectUnknown(String name, Object value) {
+        throw new BadRequestException("User field cannot be patched: " + name);
+    }
+}
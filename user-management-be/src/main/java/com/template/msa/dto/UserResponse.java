@@ -0,0 +1,66 @@
+package com.template.msa.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.template.msa.model.Role;
+import com.template.msa.model.User;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.PersistenceCreator;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * A user as returned by the API: never the password hash or authorities.
+ * Doubles as a Spring Data class projection: queries returning it select only these columns, passed to
+ * the {@link PersistenceCreator} constructor. Without the annotation Spring Data would prefer the
+ * no-arg constructor and load whole entities, password hash included.
+ * With a sparse fieldset the fields that were not requested stay null and are left out of the JSON.
+ * The row {@link #version} is always read and never serialized: it builds the entity tag.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserResponse {
+    private Long id;
+    private String username;
+    private String email;
+    private Role role;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @JsonIgnore
+    private Long version;
+
+    @PersistenceCreator
+    public UserResponse(Long id, String username, String email, Role role,
+                        LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.role = role;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.version = version;
+    }
+
+    public static UserResponse from(User user) {
+        return new UserResponse(user.getId(), user.getDisplayUsername(), user.getEmail(), user.getRole(),
+                user.getCreatedAt(), user.getUpdatedAt(), user.getVersion());
+    }
+
+    /**
+     * Clear every field outside {@code fields}.
+     *
+     * @return this response
+     */
+    public UserResponse retain(Set<UserField> fields) {
+        for (UserField field : UserField.values()) {
+            if (!fields.contains(field)) {
+                field.set(this, null);
+            }
+        }
+        return this;
+    }
+}
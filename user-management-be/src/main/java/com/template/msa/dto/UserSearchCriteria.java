@@ -0,0 +1,110 @@
+package com.template.msa.dto;
+
+import com.template.msa.exception.BadRequestException;
+import com.template.msa.model.Role;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Filters and ordering for a user search.
+ *
+ * @param query text matched case-insensitively against username and email, or null to match everyone
+ * @param match whether {@code query} must start the value or may appear anywhere in it
+ * @param role only return users with this role, or null for any role
+ * @param sortField the column to order by; ties are broken by id
+ * @param descending whether to order from the highest value down
+ */
+public record UserSearchCriteria(String query, Match match, Role role, SortField sortField, boolean descending) {
+
+    /** Shortest query a substring search accepts: below three characters the trigram index cannot help. */
+    public static final int MIN_CONTAINS_LENGTH = 3;
+
+    public enum Match {
+        PREFIX,
+        CONTAINS
+    }
+
+    public enum SortField {
+        ID(UserField.ID, Long::valueOf),
+        USERNAME(UserField.USERNAME, value -> value),
+        EMAIL(UserField.EMAIL, value -> value),
+        CREATED_AT(UserField.CREATED_AT, LocalDateTime::parse);
+
+        private final UserField field;
+        private final Function<String, Comparable<?>> parser;
+
+        SortField(UserField field, Function<String, Comparable<?>> parser) {
+            this.field = field;
+            this.parser = parser;
+        }
+
+        public UserField getField() {
+            return field;
+        }
+
+        public String getAttribute() {
+            return field.getAttribute();
+        }
+
+        /** The sort value of a user, as carried in a cursor. */
+        public String valueOf(UserResponse user) {
+            return String.valueOf(field.get(user));
+        }
+
+        /** The sort value read back from a cursor, typed for comparison with the column. */
+        public Comparable<?> parse(String value) {
+            return parser.apply(value);
+        }
+
+        static SortField fromAttribute(String attribute) {
+            for (SortField sortField : values()) {
+                if (sortField.getAttribute().equalsIgnoreCase(attribute)) {
+                    return sortField;
+                }
+            }
+            throw new BadRequestException("Cannot sort users by: " + attribute);
+        }
+    }
+
+    public UserSearchCriteria {
+        query = query == null || query.isBlank() ? null : query.trim().toLowerCase(Locale.ROOT);
+        if (query != null && match == Match.CONTAINS && query.length() < MIN_CONTAINS_LENGTH) {
+            throw new BadRequestException(
+                    "Substring search needs at least " + MIN_CONTAINS_LENGTH + " characters; use match=prefix");
+        }
+    }
+
+    /**
+     * Build criteria from request parameters.
+     *
+     * @param sort {@code field} or {@code field,asc|desc}, where field is id, username, email or createdAt
+     * @throws BadRequestException if the match mode or sort is not recognised
+     */
+    public static UserSearchCriteria of(String query, String match, Role role, String sort) {
+        String[] parts = sort.split(",", 2);
+        boolean descending = parts.length == 2 && parseDescending(parts[1].trim());
+        return new UserSearchCriteria(query, parseMatch(match), role, SortField.fromAttribute(parts[0].trim()),
+                descending);
+    }
+
+    private static Match parseMatch(String match) {
+        for (Match candidate : Match.values()) {
+            if (candidate.name().equalsIgnoreCase(match)) {
+                return candidate;
+            }
+        }
+        throw new BadRequestException("Match must be prefix or contains: " + match);
+    }
+
+    private static boolean parseDescending(String direction) {
+        if ("desc".equalsIgnoreCase(direction)) {
+            return true;
+        }
+        if ("asc".equalsIgnoreCase(direction)) {
+            return false;
+        }
+        throw new BadRequestException("Sort direction must be asc or desc: " + direction);
+    }
+}
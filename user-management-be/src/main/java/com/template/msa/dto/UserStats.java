@@ -0,0 +1,31 @@
+package com.template.msa.dto;
+
+import com.template.msa.model.Role;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dashboard figures: users per role now, and signups and deletions per day for the requested window.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStats {
+    private long total;
+    private Map<Role, Long> byRole;
+    private List<Day> days;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Day {
+        private LocalDate day;
+        private long signups;
+        private long deletions;
+    }
+}
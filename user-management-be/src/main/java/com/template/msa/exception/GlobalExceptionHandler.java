@@ -2,14 +2,19 @@ package com.template.msa.exception;
 
 import com.template.msa.model.error.ApiError;
 import com.template.msa.model.error.ApiValidationError;
+import com.template.msa.util.DataIntegrityViolations;
 import com.template.msa.util.MessageUtil;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -36,6 +41,83 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return buildResponseEntity(apiError);
     }
 
+    @ExceptionHandler(BadRequestException.class)
+    protected ResponseEntity<Object> handleBadRequestException(BadRequestException ex) {
+        ApiError apiError = new ApiError(HttpStatus.BAD_REQUEST);
+        apiError.setMessage(ex.getMessage());
+        return buildResponseEntity(apiError);
+    }
+
+    /**
+     * A unique violation is a conflict with an existing resource. Any other integrity violation, such as
+     * a null, a failed check or a dangling reference, is a defect and is answered like any unexpected error,
+     * even when its message names a column.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    protected ResponseEntity<Object> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+        if (!DataIntegrityViolations.isUniqueViolation(ex)) {
+            return handleAllUncaughtException(ex);
+        }
+        String field = DataIntegrityViolations.conflictingField(ex);
+        ApiError apiError = new ApiError(HttpStatus.CONFLICT);
+        if (field == null) {
+            apiError.setMessage("Resource conflicts with an existing one");
+        } else {
+            String message = messageUtil.getMessage("error.user." + field + ".exists");
+            apiError.setMessage(message);
+            apiError.addSubError(new ApiValidationError("user", field, null, message));
+        }
+        return buildResponseEntity(apiError);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    protected ResponseEntity<Object> handlePreconditionFailedException(PreconditionFailedException ex) {
+        ApiError apiError = new ApiError(HttpStatus.PRECONDITION_FAILED);
+        apiError.setMessage(ex.getMessage());
+        return buildResponseEntity(apiError);
+    }
+
+    /**
+     * Another transaction updated the row between our read and our write: the same outcome as a stale If-Match.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    protected ResponseEntity<Object> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        ApiError apiError = new ApiError(HttpStatus.PRECONDITION_FAILED);
+        apiError.setMessage("Resource was modified concurrently, reload it and retry");
+        return buildResponseEntity(apiError);
+    }
+
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    protected ResponseEntity<Object> handlePasswordHashingRejectedException(PasswordHashingRejectedException ex) {
+        ApiError apiError = new ApiError(HttpStatus.SERVICE_UNAVAILABLE);
+        apiError.setMessage(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(apiError);
+    }
+
+    /**
+     * No JDBC connection became free within {@code spring.datasource.hikari.connection-timeout}.
+     * The pool is the concurrency limit once requests run on virtual threads, so this is load shedding.
+     */
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    protected ResponseEntity<Object> handleCannotCreateTransactionException(CannotCreateTransactionException ex) {
+        ApiError apiError = new ApiError(HttpStatus.SERVICE_UNAVAILABLE);
+        apiError.setMessage("Database is busy, please retry");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(apiError);
+    }
+
+    @ExceptionHandler(LoginThrottledException.class)
+    protected ResponseEntity<Object> handleLoginThrottledException(LoginThrottledException ex) {
+        ApiError apiError = new ApiError(HttpStatus.TOO_MANY_REQUESTS);
+        apiError.setMessage(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(apiError);
+    }
+
     @ExceptionHandler(AuthenticationException.class)
     protected ResponseEntity<Object> handleAuthenticationException(AuthenticationException ex) {
         ApiError apiError = new ApiError(HttpStatus.UNAUTHORIZED);
@@ -97,6 +179,6 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     }
 
     private ResponseEntity<Object> buildResponseEntity(ApiError apiError) {
-        return new ResponseEntity<>(apiError, apiError.getStatus());
+        return new ResponseEntity<>(apiError, HttpStatusCode.valueOf(apiError.getStatus()));
     }
 } 
\ No newline at end of file
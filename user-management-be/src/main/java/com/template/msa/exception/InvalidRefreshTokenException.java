@@ -0,0 +1,12 @@
+package com.template.msa.exception;
+
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * The refresh token is unknown, expired, already used or no longer matches the user's credentials.
+ */
+public class InvalidRefreshTokenException extends AuthenticationException {
+    public InvalidRefreshTokenException() {
+        super("Invalid refresh token");
+    }
+}
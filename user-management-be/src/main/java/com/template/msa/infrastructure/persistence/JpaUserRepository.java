@@ -1,17 +0,0 @@
-package com.template.msa.infrastructure.persistence;
-
-import com.template.msa.domain.model.User;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
-
-import java.util.Optional;
-
-/**
- * JPA repository implementation for User domain model.
- * Handles persistence operations for users.
- */
-@Repository
-public interface JpaUserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByEmail(String email);
-    boolean existsByEmail(String email);
-} 
\ No newline at end of file
@@ -1,32 +0,0 @@
-package com.template.msa.interfaces.dto;
-
-import jakarta.validation.constraints.Email;
-import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.Size;
-import lombok.Data;
-
-import java.util.Set;
-
-/**
- * Data Transfer Object for User data.
- * Used for API request/response handling.
- */
-@Data
-public class UserDTO {
-    private Long id;
-
-    @NotBlank(message = "Email is required")
-    @Email(message = "Invalid email format")
-    private String email;
-
-    @NotBlank(message = "Name is required")
-    @Size(min = 2, max = 100, message = "Name must be between 2 and 100 characters")
-    private String name;
-
-    @NotBlank(message = "Password is required")
-    @Size(min = 8, message = "Password must be at least 8 characters long")
-    private String password;
-
-    private Set<String> roles;
-    private boolean enabled;
-} 
\ No newline at end of file
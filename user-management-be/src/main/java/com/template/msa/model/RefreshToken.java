@@ -0,0 +1,43 @@
+package com.template.msa.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A refresh token, stored as the SHA-256 hash of the opaque value handed to the client.
+ * Tokens descending from one login share a {@code familyId}.
+ */
+@Data
+@Entity
+@Table(name = "refresh_tokens")
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_hash", nullable = false, length = 64, unique = true)
+    private String tokenHash;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "family_id", nullable = false)
+    private long familyId;
+
+    /** The user's security version at login; a later password or role change invalidates the family. */
+    @Column(name = "security_version", nullable = false)
+    private int securityVersion;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    /** Set once the token has been exchanged; presenting it again is treated as theft. */
+    @Column(name = "replaced_at")
+    private LocalDateTime replacedAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -5,7 +5,13 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -17,9 +23,18 @@ import java.util.List;
 
 /**
  * User entity representing a system user.
+ * Updates write only the changed columns, guarded by {@link #version}.
+ * Deleted users keep their row until it is purged, but no query through the entity sees them.
+ * Loads by id and by email (the natural id) are served from the second-level cache regions
+ * {@value #CACHE_REGION} and {@value #NATURAL_ID_CACHE_REGION}.
  */
 @Data
 @Entity
+@DynamicUpdate
+@SQLRestriction("deleted_at IS NULL")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.NATURAL_ID_CACHE_REGION)
 @Table(name = "users",
        uniqueConstraints = {
            @UniqueConstraint(columnNames = "username"),
@@ -27,8 +42,16 @@ import java.util.List;
        })
 public class User implements UserDetails {
 
+    public static final String CACHE_REGION = "users";
+    public static final String NATURAL_ID_CACHE_REGION = "users-by-email";
+
+    /**
+     * Sequence-backed so Hibernate can batch inserts; ids are reserved in blocks of
+     * {@code allocationSize} by the pooled optimizer, which must match the sequence increment.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -36,6 +59,11 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private String username;
 
+    /**
+     * The login name. Users can change it, so the natural id is mutable and Hibernate keeps the
+     * email-to-id resolutions in {@value #NATURAL_ID_CACHE_REGION} in step with updates.
+     */
+    @NaturalId(mutable = true)
     @NotBlank
     @Size(max = 100)
     @Email
@@ -51,6 +79,16 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private Role role = Role.USER;
 
+    @Column(name = "security_version", nullable = false)
+    private int securityVersion;
+
+    /**
+     * Optimistic lock: a concurrent update of the same row fails instead of being overwritten.
+     */
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -59,6 +97,12 @@ public class User implements UserDetails {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    /**
+     * When the user was deleted; always null on loaded users, set only by bulk update.
+     */
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
     @PrePersist
     @PreUpdate
     public void prePersist() {
@@ -69,14 +113,24 @@ public class User implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of(new SimpleGrantedAuthority(role.name()));
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
     }
 
+    /**
+     * Spring Security's login name, which is the email. See {@link #getDisplayUsername()} for the username column.
+     */
     @Override
     public String getUsername() {
         return email;
     }
 
+    /**
+     * The username column, the name shown to other users. {@link #getUsername()} returns the email.
+     */
+    public String getDisplayUsername() {
+        return username;
+    }
+
     @Override
     public boolean isAccountNonExpired() {
         return true;
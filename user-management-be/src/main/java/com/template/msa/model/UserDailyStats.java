@@ -0,0 +1,43 @@
+package com.template.msa.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Signups and deletions of users with a role on one day.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "user_daily_stats")
+@IdClass(UserDailyStats.Key.class)
+public class UserDailyStats {
+
+    @Id
+    private LocalDate day;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Role role;
+
+    @Column(nullable = false)
+    private long signups;
+
+    @Column(nullable = false)
+    private long deletions;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate day;
+        private Role role;
+    }
+}
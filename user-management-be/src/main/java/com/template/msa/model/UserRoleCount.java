@@ -0,0 +1,39 @@
+package com.template.msa.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * One shard of the number of users holding a role. The count for a role is the sum of its shards.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "user_role_counts")
+@IdClass(UserRoleCount.Key.class)
+public class UserRoleCount {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Role role;
+
+    @Id
+    private short shard;
+
+    @Column(name = "user_count", nullable = false)
+    private long userCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Role role;
+        private short shard;
+    }
+}
@@ -2,6 +2,7 @@ package com.template.msa.model.error;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.http.HttpStatus;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -22,6 +23,12 @@ public class ApiError {
         this.subErrors = new ArrayList<>();
     }
 
+    public ApiError(HttpStatus status) {
+        this();
+        this.status = status.value();
+        this.error = status.getReasonPhrase();
+    }
+
     public void addSubError(ApiSubError subError) {
         if (subErrors == null) {
             subErrors = new ArrayList<>();
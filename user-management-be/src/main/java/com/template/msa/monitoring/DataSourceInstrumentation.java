@@ -0,0 +1,62 @@
+package com.template.msa.monitoring;
+
+import com.template.msa.config.RoundRobinDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wraps the application DataSource in an {@link InstrumentedDataSource} and publishes the saturation
+ * of every Hikari pool, active connections over the maximum pool size, in {@code jdbc.pool.saturation}.
+ * A pool at 1.0 makes callers wait; Hikari's own {@code hikaricp.connections.acquire} timer shows for how long.
+ */
+public class DataSourceInstrumentation implements BeanPostProcessor {
+
+    static final String APPLICATION_DATA_SOURCE = "dataSource";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Duration slowThreshold;
+
+    public DataSourceInstrumentation(ObjectProvider<MeterRegistry> meterRegistry, Duration slowThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowThreshold = slowThreshold;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource pool) {
+            bindSaturation(pool);
+        } else if (bean instanceof RoundRobinDataSource replicas) {
+            replicas.getTargets().stream()
+                    .filter(HikariDataSource.class::isInstance)
+                    .forEach(target -> bindSaturation((HikariDataSource) target));
+        }
+        if (APPLICATION_DATA_SOURCE.equals(beanName) && bean instanceof DataSource dataSource
+                && !(bean instanceof InstrumentedDataSource)) {
+            return new InstrumentedDataSource(dataSource, meterRegistry.getObject(), slowThreshold);
+        }
+        return bean;
+    }
+
+    private void bindSaturation(HikariDataSource pool) {
+        Gauge.builder("jdbc.pool.saturation", pool, DataSourceInstrumentation::saturation)
+                .description("Active connections as a fraction of the maximum pool size")
+                .tag("pool", String.valueOf(pool.getPoolName()))
+                .register(meterRegistry.getObject());
+    }
+
+    static double saturation(HikariDataSource pool) {
+        HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+        if (mxBean == null) {
+            // Not started yet
+            return 0;
+        }
+        return (double) mxBean.getActiveConnections() / pool.getMaximumPoolSize();
+    }
+}
@@ -0,0 +1,286 @@
+package com.template.msa.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Times every JDBC statement in {@code jdbc.statements} and records the rows it returned or changed
+ * in {@code jdbc.rows}. Both are tagged with the repository method that issued the statement (see
+ * {@link RepositoryMethodContext}) and its shape, the SQL operation and first table, e.g.
+ * {@code select users}, which keeps the tag bounded whatever the literals and IN-list lengths.
+ * <p>
+ * Statements slower than the threshold are logged at WARN with their SQL; bind parameters are never
+ * logged. Statements run between {@link #beginRequest()} and {@link #endRequest()} on the same thread
+ * are counted for the request.
+ */
+@Slf4j
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    private static final Pattern TABLE = Pattern.compile("\\b(?:from|into|update)\\s+\"?([\\w.]+)", Pattern.CASE_INSENSITIVE);
+    private static final int MAX_CACHED_SHAPES = 2048;
+    private static final int MAX_LOGGED_SQL = 1000;
+    private static final ThreadLocal<int[]> REQUEST_STATEMENTS = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+    private final Map<String, String> shapes = new ConcurrentHashMap<>();
+    private final Map<MeterKey, Meters> meters = new ConcurrentHashMap<>();
+
+    public InstrumentedDataSource(DataSource target, MeterRegistry meterRegistry, Duration slowThreshold) {
+        super(target);
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return instrument(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return instrument(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /**
+     * Start counting the statements the current thread runs.
+     */
+    public static void beginRequest() {
+        REQUEST_STATEMENTS.set(new int[1]);
+    }
+
+    /**
+     * Stop counting and return the number of statements run since {@link #beginRequest()}.
+     */
+    public static int endRequest() {
+        int[] count = REQUEST_STATEMENTS.get();
+        REQUEST_STATEMENTS.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    /**
+     * The operation and first table of a statement, lower case, e.g. {@code update users}.
+     */
+    static String shape(String sql) {
+        if (sql == null) {
+            return "batch";
+        }
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        if (end == 0) {
+            return "other";
+        }
+        String operation = trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+        Matcher matcher = TABLE.matcher(trimmed);
+        return matcher.find() ? operation + " " + matcher.group(1).toLowerCase(Locale.ROOT) : operation;
+    }
+
+    private String cachedShape(String sql) {
+        if (sql == null) {
+            return shape(null);
+        }
+        String shape = shapes.get(sql);
+        if (shape == null) {
+            shape = shape(sql);
+            if (shapes.size() < MAX_CACHED_SHAPES) {
+                shapes.put(sql, shape);
+            }
+        }
+        return shape;
+    }
+
+    private Meters meters(String method, String statement) {
+        return meters.computeIfAbsent(new MeterKey(method, statement), key -> new Meters(
+                Timer.builder("jdbc.statements")
+                        .description("JDBC statement execution time")
+                        .tag("method", key.method())
+                        .tag("statement", key.statement())
+                        .register(meterRegistry),
+                DistributionSummary.builder("jdbc.rows")
+                        .description("Rows returned by queries or changed by updates")
+                        .tag("method", key.method())
+                        .tag("statement", key.statement())
+                        .register(meterRegistry)));
+    }
+
+    private Connection instrument(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = call(connection, method, args);
+            if (result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                return instrument(statement, sql);
+            }
+            return result;
+        });
+    }
+
+    private Statement instrument(Statement statement, String sql) {
+        Class<? extends Statement> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        return proxy(type, new StatementHandler(statement, sql));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private record MeterKey(String method, String statement) {
+    }
+
+    private record Meters(Timer timer, DistributionSummary rows) {
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private String sql;
+        private Meters current;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("getResultSet")) {
+                ResultSet resultSet = (ResultSet) call(target, method, args);
+                return current == null || resultSet == null ? resultSet : countRows(resultSet, current);
+            }
+            if (!name.startsWith("execute")) {
+                return call(target, method, args);
+            }
+            if (args != null && args.length > 0 && args[0] instanceof String text) {
+                sql = text;
+            }
+            String repositoryMethod = RepositoryMethodContext.current();
+            current = meters(repositoryMethod, cachedShape(sql));
+            int[] requestStatements = REQUEST_STATEMENTS.get();
+            if (requestStatements != null) {
+                requestStatements[0]++;
+            }
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = call(target, method, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                current.timer().record(elapsed, TimeUnit.NANOSECONDS);
+                if (elapsed > slowThresholdNanos) {
+                    log.warn("Slow statement ({} ms) in {}: {}", TimeUnit.NANOSECONDS.toMillis(elapsed),
+                            repositoryMethod, truncate(sql));
+                }
+            }
+            if (result instanceof ResultSet resultSet) {
+                return countRows(resultSet, current);
+            }
+            recordChangedRows(result, current.rows());
+            return result;
+        }
+
+        private ResultSet countRows(ResultSet resultSet, Meters meters) {
+            return proxy(ResultSet.class, new ResultSetHandler(resultSet, meters.rows()));
+        }
+
+        private void recordChangedRows(Object result, DistributionSummary rows) {
+            if (result instanceof Integer count) {
+                rows.record(Math.max(count, 0));
+            } else if (result instanceof Long count) {
+                rows.record(Math.max(count, 0));
+            } else if (result instanceof int[] counts) {
+                long total = 0;
+                for (int count : counts) {
+                    total += Math.max(count, 0);
+                }
+                rows.record(total);
+            } else if (result instanceof long[] counts) {
+                long total = 0;
+                for (long count : counts) {
+                    total += Math.max(count, 0);
+                }
+                rows.record(total);
+            }
+        }
+
+        private String truncate(String text) {
+            if (text == null) {
+                return "(batch)";
+            }
+            return text.length() <= MAX_LOGGED_SQL ? text : text.substring(0, MAX_LOGGED_SQL) + "...";
+        }
+    }
+
+    /**
+     * Counts rows as they are read and records the total once, when the result set is exhausted or closed.
+     */
+    private static final class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet target;
+        private final DistributionSummary rows;
+        private long count;
+        private boolean recorded;
+
+        ResultSetHandler(ResultSet target, DistributionSummary rows) {
+            this.target = target;
+            this.rows = rows;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = call(target, method, args);
+            String name = method.getName();
+            if (name.equals("next")) {
+                if (Boolean.TRUE.equals(result)) {
+                    count++;
+                } else {
+                    record();
+                }
+            } else if (name.equals("close")) {
+                record();
+            }
+            return result;
+        }
+
+        private void record() {
+            if (!recorded) {
+                recorded = true;
+                rows.record(count);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.template.msa.monitoring;
+
+/**
+ * The repository method running on the current thread, e.g. {@code UserRepository.findPage}, so the
+ * JDBC statements it issues can be attributed to it. A repository method calling another keeps the
+ * outer name. Statements issued outside any repository method, such as the flush at commit, report
+ * {@link #NONE}.
+ */
+public final class RepositoryMethodContext {
+
+    public static final String NONE = "none";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private RepositoryMethodContext() {
+    }
+
+    public static String current() {
+        String method = CURRENT.get();
+        return method == null ? NONE : method;
+    }
+
+    /**
+     * @return the method that was already running, to hand back to {@link #exit(String)}
+     */
+    static String enter(String method) {
+        String outer = CURRENT.get();
+        if (outer == null) {
+            CURRENT.set(method);
+        }
+        return outer;
+    }
+
+    static void exit(String outer) {
+        if (outer == null) {
+            CURRENT.remove();
+        }
+    }
+}
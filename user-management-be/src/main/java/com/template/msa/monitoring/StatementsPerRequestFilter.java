@@ -0,0 +1,39 @@
+package com.template.msa.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Records how many JDBC statements each request ran in {@code jdbc.statements.per.request}.
+ * Only statements run on the request thread are counted, not those of {@code @Async} work it starts.
+ */
+public class StatementsPerRequestFilter extends OncePerRequestFilter {
+
+    public static final String METER = "jdbc.statements.per.request";
+
+    private final DistributionSummary statements;
+
+    public StatementsPerRequestFilter(MeterRegistry meterRegistry) {
+        this.statements = DistributionSummary.builder(METER)
+                .description("JDBC statements run while serving one request")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        InstrumentedDataSource.beginRequest();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            statements.record(InstrumentedDataSource.endRequest());
+        }
+    }
+}
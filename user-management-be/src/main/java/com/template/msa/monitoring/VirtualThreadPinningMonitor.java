@@ -0,0 +1,107 @@
+package com.template.msa.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier while blocking, e.g. inside a
+ * {@code synchronized} block or a native frame. Pinned threads hold a carrier for the whole wait,
+ * so a few of them can starve every other request of CPU.
+ * <p>
+ * Listens to the JFR {@code jdk.VirtualThreadPinned} event in-process. Every event is recorded
+ * in {@code jvm.threads.virtual.pinned}; the stack is logged once per distinct blocking site.
+ * Only active when {@code spring.threads.virtual.enabled=true}.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_LOGGED_SITES = 256;
+    private static final int LOGGED_FRAMES = 12;
+
+    private final Timer pinned;
+    private final Counter suppressed;
+    private final Set<String> loggedSites = ConcurrentHashMap.newKeySet();
+    private final RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${threads.virtual.pinning.threshold:20ms}") Duration threshold) {
+        this.pinned = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Time virtual threads spent blocked while pinned to a carrier thread")
+                .register(meterRegistry);
+        this.suppressed = Counter.builder("jvm.threads.virtual.pinned.unlogged")
+                .description("Pinning events not logged because their site was already reported")
+                .register(meterRegistry);
+        this.stream = new RecordingStream();
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Monitoring virtual thread pinning longer than {}", threshold);
+    }
+
+    void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        String site = blockingSite(event.getStackTrace());
+        if (loggedSites.size() < MAX_LOGGED_SITES && loggedSites.add(site)) {
+            log.warn("Virtual thread pinned for {} ms at {}{}", event.getDuration().toMillis(), site,
+                    formatStack(event.getStackTrace()));
+        } else {
+            suppressed.increment();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        stream.close();
+    }
+
+    /**
+     * The first application frame if there is one, since that is where a fix would go;
+     * otherwise the top frame.
+     */
+    static String blockingSite(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "<unknown>";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        return frames.stream()
+                .filter(frame -> frame.getMethod().getType().getName().startsWith("com.template.msa."))
+                .findFirst()
+                .map(VirtualThreadPinningMonitor::describe)
+                .orElseGet(() -> describe(frames.get(0)));
+    }
+
+    private static String formatStack(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder();
+        stackTrace.getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .forEach(frame -> builder.append(System.lineSeparator()).append("\tat ").append(describe(frame)));
+        return builder.toString();
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
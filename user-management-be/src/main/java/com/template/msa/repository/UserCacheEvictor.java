@@ -0,0 +1,82 @@
+package com.template.msa.repository;
+
+import com.template.msa.model.User;
+import com.template.msa.security.UserChangeBus;
+import com.template.msa.security.UserChangeEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.access.NaturalIdDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import javax.cache.CacheManager;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Evicts a user from the Hibernate second-level cache regions of {@link User} when a {@link UserChangeEvent}
+ * is published. Hibernate updates the regions itself for entity writes; the event also covers writes it
+ * does not see, such as the native soft delete, and drops the email resolutions made stale by an email
+ * change or a delete. Only that user's entries go; the rest of each region stays warm.
+ * <p>
+ * The regions are local to each instance. With the default
+ * {@link com.template.msa.security.InProcessUserChangeBus} a change made on another instance is seen here
+ * once the entry expires ({@code user.cache.ttl}); a {@link UserChangeBus} that relays events between
+ * instances evicts it here as soon as the event is delivered.
+ * <p>
+ * Both regions export {@code cache.*} meters tagged with the region name, among them
+ * {@code cache.evictions} for entries dropped by size or expiry and {@code cache.removals} for
+ * entries removed by a write or an event.
+ */
+@Component
+public class UserCacheEvictor {
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final EntityPersister persister;
+
+    public UserCacheEvictor(EntityManagerFactory entityManagerFactory, UserChangeBus userChangeBus,
+                            MeterRegistry meterRegistry) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(User.class);
+        monitor(meterRegistry);
+        userChangeBus.subscribe(this::onUserChanged);
+    }
+
+    void onUserChanged(UserChangeEvent event) {
+        sessionFactory.getCache().evictEntityData(User.class, event.userId());
+        // More than one email means it changed; resolutions of the old one must not outlive it
+        if (event.deleted() || event.emails().size() > 1) {
+            evictEmails(event.emails());
+        }
+    }
+
+    private void evictEmails(Set<String> emails) {
+        NaturalIdDataAccess naturalIds = persister.getNaturalIdCacheAccessStrategy();
+        // Cache keys are built against a session, for its tenant; this one never touches the database
+        try (Session opened = sessionFactory.openSession()) {
+            SharedSessionContractImplementor session = opened.unwrap(SharedSessionContractImplementor.class);
+            for (String email : emails) {
+                naturalIds.evict(naturalIds.generateCacheKey(email, persister, session));
+            }
+        }
+    }
+
+    private void monitor(MeterRegistry meterRegistry) {
+        JCacheRegionFactory regionFactory = (JCacheRegionFactory) sessionFactory.getCache().getRegionFactory();
+        CacheManager cacheManager = regionFactory.getCacheManager();
+        List<String> regions = List.of(persister.getCacheAccessStrategy().getRegion().getName(),
+                persister.getNaturalIdCacheAccessStrategy().getRegion().getName());
+        for (String region : regions) {
+            // The JCache behind a region carries the region prefix, if one is configured
+            String cacheName = regionFactory.qualify(region);
+            // JCacheMetrics reads the JCache statistics, which are off by default
+            cacheManager.enableStatistics(cacheName, true);
+            JCacheMetrics.monitor(meterRegistry, cacheManager.getCache(cacheName));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.template.msa.repository;
+
+import com.template.msa.model.Role;
+import com.template.msa.model.UserDailyStats;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface UserDailyStatsRepository extends JpaRepository<UserDailyStats, UserDailyStats.Key> {
+
+    /**
+     * Add to a day's counts, creating its row on the first change of the day. Native, for the upsert.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_daily_stats"))
+    @Query(value = "INSERT INTO user_daily_stats (day, role, signups, deletions) "
+            + "VALUES (:day, :#{#role.name()}, :signups, :deletions) "
+            + "ON CONFLICT (day, role) DO UPDATE SET signups = user_daily_stats.signups + EXCLUDED.signups, "
+            + "deletions = user_daily_stats.deletions + EXCLUDED.deletions", nativeQuery = true)
+    void increment(@Param("day") LocalDate day, @Param("role") Role role,
+                  @Param("signups") long signups, @Param("deletions") long deletions);
+
+    List<UserDailyStats> findByDayGreaterThanEqualOrderByDayAsc(LocalDate from);
+}
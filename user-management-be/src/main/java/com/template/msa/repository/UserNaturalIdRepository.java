@@ -0,0 +1,22 @@
+package com.template.msa.repository;
+
+import com.template.msa.model.User;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Lookups by the user's natural id, which go through Hibernate's natural-id cache instead of a query.
+ */
+public interface UserNaturalIdRepository {
+
+    /**
+     * Load a live user by email. A cached email-to-id resolution plus a cached entity costs no SQL;
+     * otherwise the id is resolved with one query and both are cached for the next call.
+     * Transactional so the unwrapped session stays open for the whole lookup when the caller has none,
+     * and read-write so that lookup runs on the primary rather than a replica: this is the login lookup,
+     * and what it loads is cached.
+     */
+    @Transactional
+    Optional<User> findByEmail(String email);
+}
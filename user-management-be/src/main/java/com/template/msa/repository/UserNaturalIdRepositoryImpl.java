@@ -0,0 +1,26 @@
+package com.template.msa.repository;
+
+import com.template.msa.model.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+/**
+ * Natural-id loads through the Hibernate {@link Session}.
+ */
+public class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    private final EntityManager entityManager;
+
+    public UserNaturalIdRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(email);
+    }
+}
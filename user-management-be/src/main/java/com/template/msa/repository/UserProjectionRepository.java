@@ -0,0 +1,25 @@
+package com.template.msa.repository;
+
+import com.template.msa.dto.UserField;
+import com.template.msa.dto.UserResponse;
+import com.template.msa.model.User;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Queries that select a caller-chosen subset of the user columns.
+ */
+public interface UserProjectionRepository {
+
+    /**
+     * Users matching {@code spec} in {@code sort} order, reading only the columns behind {@code fields}.
+     * Fields outside the set are left null in the returned responses.
+     *
+     * @param spec the filter, or null for every user
+     * @param limit the maximum number of rows to return
+     */
+    List<UserResponse> findFields(Specification<User> spec, Sort sort, int limit, Set<UserField> fields);
+}
@@ -0,0 +1,69 @@
+package com.template.msa.repository;
+
+import com.template.msa.dto.UserField;
+import com.template.msa.dto.UserResponse;
+import com.template.msa.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Criteria tuple queries: the SELECT list is built from the requested fields, plus the row version for
+ * the entity tag, so Hibernate neither reads nor hydrates the other columns.
+ */
+public class UserProjectionRepositoryImpl implements UserProjectionRepository {
+
+    private static final String VERSION = "version";
+
+    private final EntityManager entityManager;
+
+    public UserProjectionRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<UserResponse> findFields(Specification<User> spec, Sort sort, int limit, Set<UserField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> root = query.from(User.class);
+
+        List<UserField> selected = List.copyOf(fields);
+        List<Selection<?>> columns = new ArrayList<>();
+        for (UserField field : selected) {
+            columns.add(root.get(field.getAttribute()).alias(field.getAttribute()));
+        }
+        columns.add(root.get(VERSION).alias(VERSION));
+        query.multiselect(columns);
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultStream()
+                .map(tuple -> {
+                    UserResponse user = new UserResponse();
+                    for (UserField field : selected) {
+                        field.set(user, tuple.get(field.getAttribute()));
+                    }
+                    user.setVersion(tuple.get(VERSION, Long.class));
+                    return user;
+                })
+                .toList();
+    }
+}
@@ -1,9 +1,190 @@
 package com.template.msa.repository;
 
+import com.template.msa.model.Role;
 import com.template.msa.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-} 
\ No newline at end of file
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User>,
+        UserProjectionRepository, UserNaturalIdRepository {
+
+    Optional<User> findByUsername(String username);
+
+    boolean existsByUsername(String username);
+
+    boolean existsByEmail(String email);
+
+    @Query("select u.securityVersion from User u where u.id = :id")
+    Optional<Integer> findSecurityVersionById(@Param("id") Long id);
+
+    /**
+     * Keyset page: the first {@code limit} users with an id strictly greater than {@code afterId},
+     * served straight off the primary key index. With a DTO {@code type} only its columns are selected.
+     */
+    <T> List<T> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit, Class<T> type);
+
+    /**
+     * A single user, selecting only the columns of the DTO {@code type}.
+     */
+    <T> Optional<T> findById(Long id, Class<T> type);
+
+    /**
+     * The same keyset page as {@link #findByIdGreaterThanOrderByIdAsc}, reading only id, version and updated_at.
+     */
+    List<VersionView> findVersionsByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * A single user's id, version and updated_at.
+     */
+    Optional<VersionView> findVersionById(Long id);
+
+    /**
+     * Security versions of the users changed after {@code since}, deleted ones included, so every
+     * instance sees session revocations made on the others. Native, because the entity never sees
+     * deleted rows.
+     */
+    @Query(value = "SELECT id AS id, security_version AS version, deleted_at IS NOT NULL AS deleted "
+            + "FROM users WHERE updated_at > :since", nativeQuery = true)
+    List<SecurityVersionView> findSecurityVersionsChangedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Soft-delete a live user with a single UPDATE; every read stops seeing it at once. The security
+     * version and row version are bumped so its tokens and any update already in flight fail.
+     * Native, so the statement hands back what the caller needs to record the delete (PostgreSQL
+     * RETURNING), and so Hibernate does not clear the whole {@value User#CACHE_REGION} region as it
+     * does after a bulk JPQL update; {@link UserCacheEvictor} evicts just this user once it commits.
+     *
+     * @return the deleted user, empty if there is no live user with that id
+     */
+    @Transactional
+    @Query(value = "UPDATE users SET deleted_at = :now, updated_at = :now, "
+            + "security_version = security_version + 1, version = version + 1 "
+            + "WHERE id = :id AND deleted_at IS NULL "
+            + "RETURNING email AS email, role AS role, security_version AS version", nativeQuery = true)
+    Optional<DeletedUserView> softDeleteById(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Hard-delete up to {@code limit} users soft-deleted before {@code cutoff}; callers repeat until
+     * fewer are deleted. Native, because the entity never sees deleted rows.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "users"))
+    @Query(value = "DELETE FROM users WHERE id IN "
+            + "(SELECT id FROM users WHERE deleted_at < :cutoff LIMIT :limit)", nativeQuery = true)
+    int purgeDeletedBatch(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    /**
+     * Soft-deleted users still waiting to be purged.
+     */
+    @Query(value = "SELECT count(*) FROM users WHERE deleted_at IS NOT NULL", nativeQuery = true)
+    long countDeleted();
+
+    /**
+     * Scroll over every user in id order. The driver fetches rows in bounded batches and the
+     * entities are loaded read-only, so callers must consume the stream inside a transaction
+     * and detach what they have processed to keep the heap flat. Rows must not go into the
+     * second-level cache, which would take in every user and push out the ones in use. The hint
+     * only holds while the query executes, not while the stream is read, so callers also set the
+     * store mode for their transaction (see {@link com.template.msa.service.UserExportService}).
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    Stream<User> streamAllByOrderByIdAsc();
+
+    /**
+     * Resolve, in one round trip, which of the given usernames and emails are already taken.
+     */
+    @Query("select u.username as username, u.email as email from User u "
+            + "where u.username in :usernames or u.email in :emails")
+    List<IdentityView> findIdentities(@Param("usernames") Collection<String> usernames,
+                                      @Param("emails") Collection<String> emails);
+
+    /**
+     * Users per role, by scanning the table. Only the stats reconciliation should need this.
+     */
+    @Query("select u.role as role, count(u) as count from User u group by u.role")
+    List<RoleCount> countByRole();
+
+    /**
+     * Users created per day and role since {@code from}, by a range scan on created_at.
+     */
+    @Query("select cast(u.createdAt as LocalDate) as day, u.role as role, count(u) as count from User u "
+            + "where u.createdAt >= :from group by cast(u.createdAt as LocalDate), u.role")
+    List<DailyRoleCount> countSignupsSince(@Param("from") LocalDateTime from);
+
+    int EXPORT_FETCH_SIZE = 500;
+
+    /**
+     * The unique columns of a user, without loading the entity.
+     */
+    interface IdentityView {
+        String getUsername();
+
+        String getEmail();
+    }
+
+    /**
+     * The version of a user, enough to build its entity tag, and its modification time for Last-Modified.
+     */
+    interface VersionView {
+        Long getId();
+
+        long getVersion();
+
+        LocalDateTime getUpdatedAt();
+    }
+
+    interface SecurityVersionView {
+        Long getId();
+
+        Integer getVersion();
+
+        Boolean getDeleted();
+    }
+
+    /**
+     * A user as it was left by {@link #softDeleteById}; the version is the bumped security version.
+     */
+    interface DeletedUserView {
+        String getEmail();
+
+        Role getRole();
+
+        Integer getVersion();
+    }
+
+    interface RoleCount {
+        Role getRole();
+
+        Long getCount();
+    }
+
+    interface DailyRoleCount {
+        LocalDate getDay();
+
+        Role getRole();
+
+        Long getCount();
+    }
+}
@@ -0,0 +1,42 @@
+package com.template.msa.repository;
+
+import com.template.msa.model.Role;
+import com.template.msa.model.UserRoleCount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserRoleCountRepository extends JpaRepository<UserRoleCount, UserRoleCount.Key> {
+
+    /** Key of the advisory lock taken by {@link #tryLockReconciliation()}, "userstat" in ASCII. */
+    long RECONCILIATION_LOCK = 0x75736572_73746174L;
+
+    /**
+     * Add to a shard's count, creating the shard if it does not exist yet. Native, for the upsert.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_role_counts"))
+    @Query(value = "INSERT INTO user_role_counts (role, shard, user_count) VALUES (:#{#role.name()}, :shard, :delta) "
+            + "ON CONFLICT (role, shard) DO UPDATE SET user_count = user_role_counts.user_count + EXCLUDED.user_count",
+            nativeQuery = true)
+    void increment(@Param("role") Role role, @Param("shard") short shard, @Param("delta") long delta);
+
+    /**
+     * Take the stats reconciliation lock until the current transaction ends, without waiting.
+     *
+     * @return false if another transaction holds it
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(" + RECONCILIATION_LOCK + ")", nativeQuery = true)
+    boolean tryLockReconciliation();
+
+    @Query("select c.role as role, sum(c.userCount) as count from UserRoleCount c group by c.role")
+    List<UserRepository.RoleCount> sumByRole();
+}
@@ -0,0 +1,103 @@
+package com.template.msa.repository;
+
+import com.template.msa.dto.UserSearchCriteria;
+import com.template.msa.model.User;
+import com.template.msa.util.CursorUtil;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Query building blocks for user search.
+ * Text matches are written as {@code lower(column) LIKE pattern} so they hit the lower-case
+ * indexes from V8: the btree ones for prefixes, the trigram ones for substrings.
+ */
+public final class UserSpecifications {
+
+    private static final char ESCAPE = '\\';
+
+    private UserSpecifications() {
+    }
+
+    /**
+     * Everything the criteria select, positioned after {@code after} in the criteria's order.
+     */
+    public static Specification<User> search(UserSearchCriteria criteria, CursorUtil.Key after) {
+        return Specification.where(matches(criteria.query(), criteria.match()))
+                .and(hasRole(criteria))
+                .and(after(criteria, after));
+    }
+
+    /**
+     * The order the criteria ask for, with id as tie-breaker so the keyset position is unique.
+     */
+    public static Sort sort(UserSearchCriteria criteria) {
+        Sort.Direction direction = criteria.descending() ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(direction, criteria.sortField().getAttribute());
+        return criteria.sortField() == UserSearchCriteria.SortField.ID ? sort : sort.and(Sort.by(direction, "id"));
+    }
+
+    public static Specification<User> idAfter(long afterId) {
+        return (root, cq, cb) -> cb.greaterThan(root.get("id"), afterId);
+    }
+
+    public static Specification<User> idEquals(Long id) {
+        return (root, cq, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    static Specification<User> matches(String query, UserSearchCriteria.Match match) {
+        if (query == null) {
+            return null;
+        }
+        String escaped = escapeLike(query);
+        String pattern = match == UserSearchCriteria.Match.PREFIX ? escaped + "%" : "%" + escaped + "%";
+        return (root, cq, cb) -> cb.or(
+                cb.like(cb.lower(root.get("username")), pattern, ESCAPE),
+                cb.like(cb.lower(root.get("email")), pattern, ESCAPE));
+    }
+
+    private static Specification<User> hasRole(UserSearchCriteria criteria) {
+        if (criteria.role() == null) {
+            return null;
+        }
+        return (root, cq, cb) -> cb.equal(root.get("role"), criteria.role());
+    }
+
+    /**
+     * Rows strictly after the cursor: {@code (column, id) > (value, lastId)}, or {@code <} when descending.
+     * Spelled out as {@code column > value OR (column = value AND id > lastId)} for portability.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static Specification<User> after(UserSearchCriteria criteria, CursorUtil.Key after) {
+        if (after == null) {
+            return null;
+        }
+        UserSearchCriteria.SortField field = criteria.sortField();
+        boolean descending = criteria.descending();
+        return (root, cq, cb) -> {
+            Path<Long> id = root.get("id");
+            Predicate idAfter = descending ? cb.lessThan(id, after.id()) : cb.greaterThan(id, after.id());
+            if (field == UserSearchCriteria.SortField.ID) {
+                return idAfter;
+            }
+            Expression<Comparable> column = root.get(field.getAttribute());
+            Comparable value = field.parse(after.value());
+            return cb.or(
+                    beyond(cb, column, value, descending),
+                    cb.and(cb.equal(column, value), idAfter));
+        };
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static Predicate beyond(CriteriaBuilder cb, Expression<Comparable> column, Comparable value,
+                                    boolean descending) {
+        return descending ? cb.lessThan(column, value) : cb.greaterThan(column, value);
+    }
+
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
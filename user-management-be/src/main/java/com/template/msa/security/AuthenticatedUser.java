@@ -0,0 +1,46 @@
+package com.template.msa.security;
+
+import com.template.msa.model.Role;
+import com.template.msa.model.User;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Principal rebuilt from the claims of a verified access token, so authenticated requests
+ * do not need to load the user from the database.
+ */
+public record AuthenticatedUser(Long id, String email, Role role) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    /**
+     * View the principal of an authentication as an {@code AuthenticatedUser}, whichever way the request
+     * was authenticated.
+     *
+     * @return the current user, or null if the authentication does not belong to a known user
+     */
+    public static AuthenticatedUser from(Authentication authentication) {
+        if (authentication == null) {
+            return null;
+        }
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof AuthenticatedUser user) {
+            return user;
+        }
+        if (principal instanceof User user && user.getId() != null) {
+            return new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole());
+        }
+        return null;
+    }
+}
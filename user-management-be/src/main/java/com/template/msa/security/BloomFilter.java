@@ -0,0 +1,86 @@
+package com.template.msa.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size Bloom filter over strings with lock-free inserts and lookups.
+ * Positions come from double hashing two 64-bit FNV-1a variants of the UTF-8 bytes.
+ */
+class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private final LongAdder bitsSet = new LongAdder();
+
+    /**
+     * Size the filter for {@code expectedInsertions} at the target false-positive probability.
+     */
+    BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveProbability) / (LN2 * LN2));
+        this.words = new AtomicLongArray((int) Math.max(1, (m + 63) / 64));
+        this.bits = words.length() * 64L;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / n * LN2));
+    }
+
+    void put(String value) {
+        long h1 = fnv(value, 0xcbf29ce484222325L);
+        long h2 = fnv(value, 0x84222325cbf29ce4L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word;
+            do {
+                word = words.get(index);
+                if ((word & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(index, word, word | mask));
+            if ((word & mask) == 0) {
+                bitsSet.increment();
+            }
+        }
+    }
+
+    boolean mightContain(String value) {
+        long h1 = fnv(value, 0xcbf29ce484222325L);
+        long h2 = fnv(value, 0x84222325cbf29ce4L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Probability that a value never inserted is reported as present, given the current fill.
+     */
+    double expectedFalsePositiveProbability() {
+        return Math.pow((double) bitsSet.sum() / bits, hashes);
+    }
+
+    long sizeInBytes() {
+        return bits / 8;
+    }
+
+    private static long fnv(String value, long seed) {
+        long hash = seed;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        // Final avalanche so nearby inputs spread over the whole range
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
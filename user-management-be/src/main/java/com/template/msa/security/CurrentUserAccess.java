@@ -0,0 +1,21 @@
+package com.template.msa.security;
+
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ownership checks for method security expressions, e.g.
+ * {@code @PreAuthorize("hasRole('ADMIN') or @currentUser.isSelf(#id)")}.
+ * Answers from the authenticated principal, so the check costs no query.
+ */
+@Component("currentUser")
+public class CurrentUserAccess {
+
+    /**
+     * @return true if the authenticated caller is the user with the given id
+     */
+    public boolean isSelf(Long userId) {
+        AuthenticatedUser user = AuthenticatedUser.from(SecurityContextHolder.getContext().getAuthentication());
+        return user != null && user.id().equals(userId);
+    }
+}
@@ -0,0 +1,33 @@
+package com.template.msa.security;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.InsufficientAuthenticationException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resolves {@link CurrentUser}-annotated {@link AuthenticatedUser} parameters.
+ */
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && AuthenticatedUser.class.isAssignableFrom(parameter.getParameterType());
+    }
+
+    @Override
+    public AuthenticatedUser resolveArgument(MethodParameter parameter,
+                                             ModelAndViewContainer mavContainer,
+                                             NativeWebRequest webRequest,
+                                             WebDataBinderFactory binderFactory) {
+        AuthenticatedUser user = AuthenticatedUser.from(SecurityContextHolder.getContext().getAuthentication());
+        if (user == null) {
+            throw new InsufficientAuthenticationException("No authenticated user");
+        }
+        return user;
+    }
+}
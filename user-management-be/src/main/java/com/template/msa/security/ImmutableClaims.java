@@ -0,0 +1,127 @@
+package com.template.msa.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only view of verified claims, safe to share between the requests presenting the same token.
+ * Every mutator throws {@link UnsupportedOperationException}; dates are handed out as copies.
+ */
+final class ImmutableClaims extends AbstractMap<String, Object> implements Claims {
+
+    private final Claims parsed;
+    private final Map<String, Object> values;
+
+    /**
+     * @param parsed claims fresh from the parser, not referenced anywhere else
+     */
+    ImmutableClaims(Claims parsed) {
+        this.parsed = parsed;
+        this.values = Collections.unmodifiableMap(new LinkedHashMap<>(parsed));
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return values.entrySet();
+    }
+
+    @Override
+    public Object get(Object key) {
+        return values.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return values.containsKey(key);
+    }
+
+    @Override
+    public <T> T get(String claimName, Class<T> requiredType) {
+        T value = parsed.get(claimName, requiredType);
+        return value instanceof Date date ? requiredType.cast(new Date(date.getTime())) : value;
+    }
+
+    @Override
+    public String getIssuer() {
+        return parsed.getIssuer();
+    }
+
+    @Override
+    public String getSubject() {
+        return parsed.getSubject();
+    }
+
+    @Override
+    public String getAudience() {
+        return parsed.getAudience();
+    }
+
+    @Override
+    public Date getExpiration() {
+        return copy(parsed.getExpiration());
+    }
+
+    @Override
+    public Date getNotBefore() {
+        return copy(parsed.getNotBefore());
+    }
+
+    @Override
+    public Date getIssuedAt() {
+        return copy(parsed.getIssuedAt());
+    }
+
+    @Override
+    public String getId() {
+        return parsed.getId();
+    }
+
+    @Override
+    public Claims setIssuer(String iss) {
+        throw readOnly();
+    }
+
+    @Override
+    public Claims setSubject(String sub) {
+        throw readOnly();
+    }
+
+    @Override
+    public Claims setAudience(String aud) {
+        throw readOnly();
+    }
+
+    @Override
+    public Claims setExpiration(Date exp) {
+        throw readOnly();
+    }
+
+    @Override
+    public Claims setNotBefore(Date nbf) {
+        throw readOnly();
+    }
+
+    @Override
+    public Claims setIssuedAt(Date iat) {
+        throw readOnly();
+    }
+
+    @Override
+    public Claims setId(String jti) {
+        throw readOnly();
+    }
+
+    private static Date copy(Date date) {
+        return date == null ? null : new Date(date.getTime());
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Verified claims are read-only");
+    }
+}
@@ -0,0 +1,45 @@
+package com.template.msa.security;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * {@link UserChangeBus} that delivers events synchronously to subscribers in this JVM.
+ * Delivery waits for the publishing transaction to commit so a concurrent reader cannot
+ * re-cache the old state between invalidation and commit.
+ */
+@Component
+public class InProcessUserChangeBus implements UserChangeBus {
+
+    private final List<Consumer<UserChangeEvent>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(UserChangeEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(event);
+                }
+            });
+        } else {
+            deliver(event);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<UserChangeEvent> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    private void deliver(UserChangeEvent event) {
+        for (Consumer<UserChangeEvent> subscriber : subscribers) {
+            subscriber.accept(event);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.template.msa.security;
+
+import com.template.msa.exception.ResourceNotFoundException;
+import com.template.msa.model.User;
+import com.template.msa.repository.UserRepository;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * {@link UserDetailsService} reading users through JPA. Both lookups are answered from the Hibernate
+ * second-level cache on a hit (see {@link User}), which keeps its own copy of the state and gives every
+ * persistence context its own instance, so no further caching happens here.
+ * <p>
+ * Lookups run in read-write transactions, so on the primary even when read replicas are configured:
+ * a lagging replica would fail the login of a user who just registered, and what these lookups load is
+ * what fills the cache for later requests.
+ */
+@Service
+@Transactional
+public class JpaUserDetailsService implements UserDetailsService {
+
+    private final UserRepository userRepository;
+
+    public JpaUserDetailsService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Load a user by email, which is the username used for authentication.
+     */
+    @Override
+    public User loadUserByUsername(String email) {
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+    }
+
+    /**
+     * Load a user by id.
+     *
+     * @throws ResourceNotFoundException if no such user exists
+     */
+    public User loadUserById(Long id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+    }
+}
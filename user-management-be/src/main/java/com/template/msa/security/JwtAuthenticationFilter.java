@@ -1,10 +1,13 @@
 package com.template.msa.security;
 
+import com.template.msa.model.Role;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,10 +20,24 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final SecurityVersionRegistry securityVersionRegistry;
+    private final TokenDenylist tokenDenylist;
+    private final boolean statelessAuthEnabled;
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   UserDetailsService userDetailsService,
+                                   SecurityVersionRegistry securityVersionRegistry,
+                                   TokenDenylist tokenDenylist,
+                                   @Value("${jwt.stateless-auth.enabled:true}") boolean statelessAuthEnabled) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.securityVersionRegistry = securityVersionRegistry;
+        this.tokenDenylist = tokenDenylist;
+        this.statelessAuthEnabled = statelessAuthEnabled;
+    }
 
     @Override
     protected void doFilterInternal(
@@ -30,7 +47,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
+        final Claims claims;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -38,12 +55,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
+        try {
+            // Verified once here; everything below works off these claims
+            claims = jwtService.extractAllClaims(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (tokenDenylist.isRevoked(claims.getId(), System.currentTimeMillis())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        final String userEmail = claims.getSubject();
 
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && statelessAuthEnabled && claims.get(JwtService.CLAIM_USER_ID) != null) {
+            authenticateFromClaims(claims, request);
+        } else if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
             
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (jwtService.isTokenValid(claims, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -55,4 +86,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Build the principal from the token alone. Role changes and deletions bump or revoke the
+     * user's security version, which the registry checks in memory.
+     */
+    private void authenticateFromClaims(Claims claims, HttpServletRequest request) {
+        Long userId = claims.get(JwtService.CLAIM_USER_ID, Long.class);
+        Integer version = claims.get(JwtService.CLAIM_SECURITY_VERSION, Integer.class);
+        String role = claims.get(JwtService.CLAIM_ROLE, String.class);
+        if (version == null || role == null || !securityVersionRegistry.isCurrent(userId, version)) {
+            return;
+        }
+
+        AuthenticatedUser principal = new AuthenticatedUser(userId, claims.getSubject(), Role.valueOf(role));
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                principal,
+                null,
+                principal.getAuthorities()
+        );
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
+}
@@ -0,0 +1,210 @@
+package com.template.msa.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The keys tokens are signed and verified with, parsed once at startup.
+ * Asymmetric keys are addressed by the {@code kid} header, so several can be accepted at once
+ * while keys rotate; their public halves are published as a JWK Set.
+ * Without asymmetric keys this falls back to a single HS256 secret and tokens carry no {@code kid}.
+ */
+public class JwtKeySet extends SigningKeyResolverAdapter {
+
+    /**
+     * @param privateKey null for keys that are only used to verify
+     */
+    record SigningKey(String id, SignatureAlgorithm algorithm, PrivateKey privateKey, PublicKey publicKey) {
+    }
+
+    private final String activeKeyId;
+    private final Key activeKey;
+    private final SignatureAlgorithm activeAlgorithm;
+    private final Key hmacKey;
+    private final Map<String, PublicKey> verificationKeys;
+    private final Map<String, Object> jwks;
+
+    private JwtKeySet(String activeKeyId, Key activeKey, SignatureAlgorithm activeAlgorithm, Key hmacKey,
+                      Map<String, PublicKey> verificationKeys, List<Map<String, Object>> jwks) {
+        this.activeKeyId = activeKeyId;
+        this.activeKey = activeKey;
+        this.activeAlgorithm = activeAlgorithm;
+        this.hmacKey = hmacKey;
+        this.verificationKeys = verificationKeys;
+        this.jwks = Map.of("keys", jwks);
+    }
+
+    public static JwtKeySet hmac(String secret) {
+        Key key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        return new JwtKeySet(null, key, SignatureAlgorithm.HS256, key, Map.of(), List.of());
+    }
+
+    /**
+     * Parse the configured PEM keys, or fall back to HS256 with {@code secret} if there are none.
+     *
+     * @throws IllegalStateException if a key cannot be read or the active key has no private half
+     */
+    public static JwtKeySet load(JwtSigningProperties properties, String secret) {
+        if (properties.keys().isEmpty()) {
+            return hmac(secret);
+        }
+        List<SigningKey> keys = new ArrayList<>();
+        for (JwtSigningProperties.Key key : properties.keys()) {
+            PublicKey publicKey = (PublicKey) readKey(key.id(), key.publicKey(), false);
+            PrivateKey privateKey = key.privateKey() == null ? null : (PrivateKey) readKey(key.id(), key.privateKey(), true);
+            keys.add(new SigningKey(key.id(), algorithmFor(key.id(), publicKey), privateKey, publicKey));
+        }
+        return of(properties.activeKeyId(), keys);
+    }
+
+    static JwtKeySet of(String activeKeyId, List<SigningKey> keys) {
+        Map<String, PublicKey> verificationKeys = new LinkedHashMap<>();
+        List<Map<String, Object>> jwks = new ArrayList<>();
+        SigningKey active = null;
+        for (SigningKey key : keys) {
+            if (verificationKeys.putIfAbsent(key.id(), key.publicKey()) != null) {
+                throw new IllegalStateException("Duplicate JWT key id: " + key.id());
+            }
+            jwks.add(toJwk(key));
+            if (key.id().equals(activeKeyId)) {
+                active = key;
+            }
+        }
+        if (active == null || active.privateKey() == null) {
+            throw new IllegalStateException("jwt.signing.active-key-id must name a configured key with a private key");
+        }
+        return new JwtKeySet(active.id(), active.privateKey(), active.algorithm(), null,
+                Collections.unmodifiableMap(verificationKeys), Collections.unmodifiableList(jwks));
+    }
+
+    /**
+     * @return the {@code kid} for new tokens, or null when signing with the HS256 secret
+     */
+    public String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    public Key getActiveKey() {
+        return activeKey;
+    }
+
+    public SignatureAlgorithm getActiveAlgorithm() {
+        return activeAlgorithm;
+    }
+
+    /**
+     * @return the public keys as a JWK Set document, empty in HS256 mode
+     */
+    public Map<String, Object> getJwks() {
+        return jwks;
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        String keyId = header.getKeyId();
+        if (keyId == null) {
+            if (hmacKey == null) {
+                throw new UnsupportedJwtException("Token has no key id");
+            }
+            return hmacKey;
+        }
+        PublicKey key = verificationKeys.get(keyId);
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown key id: " + keyId);
+        }
+        return key;
+    }
+
+    private static Key readKey(String id, Resource resource, boolean privateKey) {
+        try {
+            String pem = resource.getContentAsString(StandardCharsets.UTF_8);
+            byte[] der = Base64.getMimeDecoder().decode(pem.replaceAll("-----[A-Z ]+-----", ""));
+            GeneralSecurityException failure = null;
+            for (String type : List.of("RSA", "EC")) {
+                try {
+                    KeyFactory factory = KeyFactory.getInstance(type);
+                    return privateKey
+                            ? factory.generatePrivate(new PKCS8EncodedKeySpec(der))
+                            : factory.generatePublic(new X509EncodedKeySpec(der));
+                } catch (GeneralSecurityException e) {
+                    failure = e;
+                }
+            }
+            throw new IllegalStateException("Unsupported JWT key " + id + " in " + resource, failure);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read JWT key " + id + " from " + resource, e);
+        }
+    }
+
+    private static SignatureAlgorithm algorithmFor(String id, PublicKey key) {
+        if (key instanceof RSAPublicKey) {
+            return SignatureAlgorithm.RS256;
+        }
+        if (key instanceof ECPublicKey ec && ec.getParams().getCurve().getField().getFieldSize() == 256) {
+            return SignatureAlgorithm.ES256;
+        }
+        throw new IllegalStateException("JWT key " + id + " must be RSA or EC P-256");
+    }
+
+    private static Map<String, Object> toJwk(SigningKey key) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kid", key.id());
+        jwk.put("use", "sig");
+        jwk.put("alg", key.algorithm().getValue());
+        if (key.publicKey() instanceof RSAPublicKey rsa) {
+            jwk.put("kty", "RSA");
+            jwk.put("n", base64Url(rsa.getModulus(), 0));
+            jwk.put("e", base64Url(rsa.getPublicExponent(), 0));
+        } else {
+            ECPublicKey ec = (ECPublicKey) key.publicKey();
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("x", base64Url(ec.getW().getAffineX(), 32));
+            jwk.put("y", base64Url(ec.getW().getAffineY(), 32));
+        }
+        return Collections.unmodifiableMap(jwk);
+    }
+
+    /**
+     * Unsigned big-endian bytes, left-padded to {@code length} when non-zero (RFC 7518 section 6).
+     */
+    private static String base64Url(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            byte[] unsigned = new byte[bytes.length - 1];
+            System.arraycopy(bytes, 1, unsigned, 0, unsigned.length);
+            bytes = unsigned;
+        }
+        if (bytes.length < length) {
+            byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -1,9 +1,11 @@
 package com.template.msa.security;
 
+import com.template.msa.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -12,15 +14,43 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies JWTs.
+ * Keys come from {@link JwtKeySet}: with asymmetric keys configured, tokens are signed with the
+ * active key and carry its {@code kid}, and any published key verifies; otherwise HS256 with
+ * {@code jwt.secret} is used. The parser is built once; verified claims are cached until the token
+ * expires, so a token presented on every request is only parsed and signature-checked the first time.
+ */
 @Service
 public class JwtService {
-    @Value("${jwt.secret}")
-    private String secretKey;
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_SECURITY_VERSION = "ver";
 
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+    private final JwtKeySet keySet;
+    private final JwtParser parser;
+    private final long jwtExpiration;
+    private final TokenClaimsCache claimsCache;
+
+    @Autowired
+    public JwtService(JwtKeySet keySet,
+                      @Value("${jwt.expiration}") long jwtExpiration,
+                      @Value("${jwt.cache.max-size:10000}") int cacheMaxSize) {
+        this.keySet = keySet;
+        this.parser = Jwts.parserBuilder().setSigningKeyResolver(keySet).build();
+        this.jwtExpiration = jwtExpiration;
+        this.claimsCache = new TokenClaimsCache(cacheMaxSize);
+    }
+
+    /**
+     * HS256 with a shared secret.
+     */
+    public JwtService(String secretKey, long jwtExpiration, int cacheMaxSize) {
+        this(JwtKeySet.hmac(secretKey), jwtExpiration, cacheMaxSize);
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -31,43 +61,75 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Issue an access token with a random {@code jti} so it can be revoked individually.
+     * Tokens for {@link User} entities also carry the user id, role and security version,
+     * which lets the authentication filter build the principal without a query.
+     */
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user && user.getId() != null) {
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_ROLE, user.getRole().name());
+            claims.put(CLAIM_SECURITY_VERSION, user.getSecurityVersion());
+        }
+        return generateToken(claims, userDetails);
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return Jwts.builder()
+        long now = System.currentTimeMillis();
+        JwtBuilder builder = Jwts.builder();
+        if (keySet.getActiveKeyId() != null) {
+            builder.setHeaderParam("kid", keySet.getActiveKeyId());
+        }
+        return builder
                 .setClaims(extraClaims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + jwtExpiration))
+                .signWith(keySet.getActiveKey(), keySet.getActiveAlgorithm())
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(extractAllClaims(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Check already-verified claims against the user, without touching the token again.
+     * Tokens issued before the user's last credential or role change are rejected.
+     */
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        Integer version = claims.get(CLAIM_SECURITY_VERSION, Integer.class);
+        boolean currentVersion = version == null
+                || !(userDetails instanceof User user)
+                || user.getSecurityVersion() == version;
+        return userDetails.getUsername().equals(claims.getSubject()) && currentVersion && !isTokenExpired(claims);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    /**
+     * Verify the token signature and return its claims. Each distinct token is verified once;
+     * later calls are served from a bounded cache until the token expires.
+     *
+     * @return read-only claims
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims extractAllClaims(String token) {
+        Claims cached = claimsCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = new ImmutableClaims(parser.parseClaimsJws(token).getBody());
+        claimsCache.put(token, claims);
+        return claims;
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    Key getSigningKey() {
+        return keySet.getActiveKey();
     }
 
-    private Key getSigningKey() {
-        byte[] keyBytes = secretKey.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
-} 
\ No newline at end of file
+}
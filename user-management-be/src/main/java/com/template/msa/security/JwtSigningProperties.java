@@ -0,0 +1,34 @@
+package com.template.msa.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+
+import java.util.List;
+
+/**
+ * Asymmetric token signing keys, bound from {@code jwt.signing.*}.
+ * <p>
+ * Every listed key is published in the JWKS and accepted for verification; the one named by
+ * {@code active-key-id} signs new tokens and must have a private key. To rotate, add the next key,
+ * let downstream caches pick it up, switch {@code active-key-id}, then drop the old key once the
+ * tokens it signed have expired. With no keys configured, tokens are signed with HS256 and
+ * {@code jwt.secret}.
+ *
+ * @param activeKeyId the {@code kid} of the key that signs new tokens
+ * @param keys RSA (RS256) or EC P-256 (ES256) keys, as PEM files
+ */
+@ConfigurationProperties(prefix = "jwt.signing")
+public record JwtSigningProperties(String activeKeyId, List<Key> keys) {
+
+    public JwtSigningProperties {
+        keys = keys == null ? List.of() : keys;
+    }
+
+    /**
+     * @param id the {@code kid} header value
+     * @param privateKey PKCS#8 PEM; optional for keys that only verify
+     * @param publicKey X.509 SubjectPublicKeyInfo PEM
+     */
+    public record Key(String id, Resource privateKey, Resource publicKey) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.template.msa.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link PasswordEncoder} that runs the delegate's hashing and verification on the
+ * {@link PasswordHashingExecutor} instead of the calling request thread.
+ */
+public class OffloadingPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor executor;
+
+    public OffloadingPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executor.execute("encode", () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executor.execute("matches", () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Hash in the background, waiting for capacity instead of being rejected when the pool is busy.
+     */
+    public CompletableFuture<String> encodeWhenAvailable(CharSequence rawPassword) {
+        return executor.submitWhenAvailable("encode", () -> delegate.encode(rawPassword));
+    }
+}
@@ -0,0 +1,160 @@
+package com.template.msa.security;
+
+import com.template.msa.exception.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing and verification on a small pool sized to the CPU cores, so a burst of
+ * logins or registrations cannot occupy every request thread with BCrypt work.
+ * At most {@code threads + queueCapacity} request-path tasks are admitted at once and callers beyond
+ * that are rejected immediately. Bulk callers have their own, smaller allowance of
+ * {@code bulkPermits} tasks in flight, half the threads by default, and wait for a slot: an import
+ * can neither use up the request-path admissions nor occupy every thread.
+ * Exposes {@code password.hash} timers per operation, a {@code password.hash.queue} depth gauge,
+ * a {@code password.hash.rejected} counter and the standard executor meters.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Semaphore admission;
+    private final Semaphore bulkAdmission;
+    private final Map<String, Timer> timers;
+    private final Counter rejected;
+
+    public PasswordHashingExecutor(MeterRegistry meterRegistry,
+                                   @Value("${password.hashing.threads:0}") int threads,
+                                   @Value("${password.hashing.queue-capacity:64}") int queueCapacity,
+                                   @Value("${password.hashing.bulk-permits:0}") int bulkPermits) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.admission = new Semaphore(poolSize + queueCapacity);
+        this.bulkAdmission = new Semaphore(bulkPermits > 0 ? bulkPermits : Math.max(1, poolSize / 2));
+        this.timers = Map.of(
+                "encode", timer(meterRegistry, "encode"),
+                "matches", timer(meterRegistry, "matches"));
+        this.rejected = Counter.builder("password.hash.rejected")
+                .description("Password hashing tasks rejected because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.queue", executor, e -> e.getQueue().size())
+                .description("Password hashing tasks waiting for a thread")
+                .register(meterRegistry);
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "password-hash");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Run the task on the hashing pool and wait for its result.
+     *
+     * @throws PasswordHashingRejectedException if the pool and its queue are full
+     */
+    public <T> T execute(String operation, Supplier<T> task) {
+        CompletableFuture<T> future = submit(operation, task);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    /**
+     * Run the task on the hashing pool, waiting for a bulk slot rather than failing when none is free.
+     * Meant for bulk work that should apply backpressure to its producer instead of being rejected.
+     */
+    public <T> CompletableFuture<T> submitWhenAvailable(String operation, Supplier<T> task) {
+        Timer timer = timer(operation);
+        try {
+            bulkAdmission.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        }
+        return submitAdmitted(timer, task, bulkAdmission);
+    }
+
+    /**
+     * Admit a request-path task without waiting for its result.
+     */
+    <T> CompletableFuture<T> submit(String operation, Supplier<T> task) {
+        Timer timer = timer(operation);
+        if (!admission.tryAcquire()) {
+            rejected.increment();
+            throw new PasswordHashingRejectedException("Too many concurrent password operations, retry shortly");
+        }
+        return submitAdmitted(timer, task, admission);
+    }
+
+    private <T> CompletableFuture<T> submitAdmitted(Timer timer, Supplier<T> task, Semaphore permits) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return timer.record(task);
+                } finally {
+                    permits.release();
+                }
+            }, executor);
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private Timer timer(String operation) {
+        Timer timer = timers.get(operation);
+        if (timer == null) {
+            throw new IllegalArgumentException("Unknown password operation: " + operation);
+        }
+        return timer;
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("password.hash")
+                .description("Time spent hashing or verifying passwords")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+}
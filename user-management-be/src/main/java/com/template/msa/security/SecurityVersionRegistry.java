@@ -0,0 +1,69 @@
+package com.template.msa.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.template.msa.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * In-memory view of each user's security version, used to accept or reject stateless access tokens.
+ * A user's version is read from the database the first time one of their tokens is seen and is then
+ * kept current from {@link UserChangeEvent}s, so steady-state checks are a cache lookup.
+ * Entries expire after {@code user.cache.ttl}, the same bound as the second-level cache regions of
+ * {@code User}, so a change this instance was never told about is picked up from the database within
+ * that time.
+ */
+@Component
+public class SecurityVersionRegistry {
+
+    /** Marker for users that have been deleted or never existed. */
+    private static final int REVOKED = -1;
+
+    private final Cache<Long, Integer> versions;
+    private final UserRepository userRepository;
+
+    @Autowired
+    public SecurityVersionRegistry(UserRepository userRepository, UserChangeBus userChangeBus,
+                                   @Value("${user.cache.max-size:10000}") long maxSize,
+                                   @Value("${user.cache.ttl:5m}") Duration ttl) {
+        this(userRepository, userChangeBus, maxSize, ttl, Ticker.systemTicker());
+    }
+
+    SecurityVersionRegistry(UserRepository userRepository, UserChangeBus userChangeBus,
+                            long maxSize, Duration ttl, Ticker ticker) {
+        this.versions = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).ticker(ticker).build();
+        this.userRepository = userRepository;
+        userChangeBus.subscribe(this::onUserChanged);
+    }
+
+    /**
+     * @return true if a token issued with {@code tokenVersion} is still acceptable for the user
+     */
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        int version = versions.get(userId, id -> userRepository.findSecurityVersionById(id).orElse(REVOKED));
+        return version != REVOKED && version == tokenVersion;
+    }
+
+    /**
+     * Apply a version read from the database, e.g. after another instance revoked the user's sessions.
+     * Only users already cached are touched, and versions only move forward, so a read taken before a
+     * local change cannot undo it.
+     */
+    public void refresh(Long userId, int securityVersion, boolean deleted) {
+        versions.asMap().computeIfPresent(userId, (id, cached) -> {
+            if (deleted || cached == REVOKED) {
+                return REVOKED;
+            }
+            return Math.max(cached, securityVersion);
+        });
+    }
+
+    void onUserChanged(UserChangeEvent event) {
+        versions.put(event.userId(), event.deleted() ? REVOKED : event.securityVersion());
+    }
+}
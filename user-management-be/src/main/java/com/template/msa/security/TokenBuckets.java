@@ -0,0 +1,73 @@
+package com.template.msa.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets, one per key, held in a bounded cache. Each bucket is a single {@code long} packing
+ * the last refill time and the remaining milli-tokens, updated with compare-and-set, so taking a
+ * token is lock-free and never contends with other keys.
+ * A bucket left alone long enough to refill completely expires, which loses nothing. When more keys
+ * are active than the cache holds, the least recently used buckets are dropped and start full again:
+ * a flood of made-up keys can loosen the limit for a key, but never exhausts anyone else's.
+ */
+class TokenBuckets {
+
+    private static final int TOKEN_BITS = 20;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long MILLI = 1000;
+
+    private final Cache<String, AtomicLong> buckets;
+    private final long capacityMilli;
+    private final double refillMilliPerMs;
+
+    /**
+     * @param maxKeys number of keys tracked at once
+     * @param capacity burst size in tokens (at most 1000)
+     * @param refillPerMinute tokens added back per minute
+     */
+    TokenBuckets(int maxKeys, int capacity, int refillPerMinute) {
+        this.capacityMilli = Math.min(capacity * MILLI, TOKEN_MASK);
+        this.refillMilliPerMs = refillPerMinute * MILLI / 60_000.0;
+        Duration refillTime = refillPerMinute > 0
+                ? Duration.ofMillis((long) Math.ceil(capacityMilli / refillMilliPerMs))
+                : Duration.ofDays(1);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(refillTime)
+                .build();
+    }
+
+    /**
+     * Take one token from the key's bucket.
+     *
+     * @return 0 if a token was taken, otherwise the number of milliseconds until one is available
+     */
+    long tryAcquire(String key, long nowMillis) {
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong());
+        while (true) {
+            long state = bucket.get();
+            long tokens = available(state, nowMillis);
+            if (tokens < MILLI) {
+                return refillMilliPerMs > 0 ? (long) Math.ceil((MILLI - tokens) / refillMilliPerMs) : Long.MAX_VALUE;
+            }
+            long next = (nowMillis << TOKEN_BITS) | (tokens - MILLI);
+            if (bucket.compareAndSet(state, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private long available(long state, long nowMillis) {
+        if (state == 0) {
+            return capacityMilli;
+        }
+        long last = state >>> TOKEN_BITS;
+        long tokens = state & TOKEN_MASK;
+        long elapsed = Math.max(0, nowMillis - last);
+        return Math.min(capacityMilli, tokens + (long) (elapsed * refillMilliPerMs));
+    }
+}
@@ -0,0 +1,75 @@
+package com.template.msa.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of verified token claims, keyed by the SHA-256 digest of the token so the raw
+ * bearer credential is never retained. Each entry expires with its token; when the cache is full
+ * the least valuable entries are evicted one by one. Cached claims are read-only, as every request
+ * presenting the token shares them.
+ */
+class TokenClaimsCache {
+
+    private final Cache<String, Claims> entries;
+
+    TokenClaimsCache(int maxSize) {
+        this.entries = maxSize > 0
+                ? Caffeine.newBuilder().maximumSize(maxSize).expireAfter(new UntilTokenExpiry()).build()
+                : null;
+    }
+
+    /**
+     * @return the cached claims, or null if the token has not been verified yet or has expired
+     */
+    Claims get(String token) {
+        return entries == null ? null : entries.getIfPresent(digest(token));
+    }
+
+    /**
+     * Cache verified claims until the token expires. Tokens without an expiry are not cached.
+     *
+     * @param claims read-only claims, see {@link ImmutableClaims}
+     */
+    void put(String token, Claims claims) {
+        if (entries != null && claims.getExpiration() != null) {
+            entries.put(digest(token), claims);
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.template.msa.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory set of revoked access-token ids ({@code jti}), checked on every authenticated request.
+ * <p>
+ * A Bloom filter answers the common case, a token that was never revoked, without touching the
+ * exact set; only filter hits are confirmed against the exact map of id to token expiry. Entries
+ * leave the exact set once the token would have expired anyway, and the filter is rebuilt from the
+ * exact set on {@link #evictExpired} since Bloom filters cannot forget. Lookups are lock-free;
+ * inserts and rebuilds share a lock so an insert cannot fall between a rebuild's snapshot and swap.
+ * <p>
+ * Exposes {@code auth.denylist.entries}, {@code auth.denylist.bloom.bytes},
+ * {@code auth.denylist.bloom.expected-fpp} and the {@code auth.denylist.bloom.false-positives} counter.
+ */
+@Component
+public class TokenDenylist {
+
+    private static final int MIN_CAPACITY = 1024;
+
+    private final ConcurrentHashMap<String, Long> revoked = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final double falsePositiveProbability;
+    private final Counter falsePositives;
+    private volatile BloomFilter filter;
+    private volatile long capacity;
+
+    public TokenDenylist(MeterRegistry meterRegistry,
+                         @Value("${jwt.revocation.bloom.false-positive-probability:0.01}") double falsePositiveProbability) {
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.capacity = MIN_CAPACITY;
+        this.filter = new BloomFilter(capacity, falsePositiveProbability);
+        this.falsePositives = Counter.builder("auth.denylist.bloom.false-positives")
+                .description("Bloom filter hits for tokens that were not revoked")
+                .register(meterRegistry);
+        Gauge.builder("auth.denylist.entries", revoked, Map::size)
+                .description("Revoked tokens that have not expired yet")
+                .register(meterRegistry);
+        Gauge.builder("auth.denylist.bloom.bytes", this, denylist -> denylist.filter.sizeInBytes())
+                .description("Memory used by the Bloom filter bit array")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("auth.denylist.bloom.expected-fpp", this,
+                        denylist -> denylist.filter.expectedFalsePositiveProbability())
+                .description("Expected Bloom filter false-positive probability at the current fill")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return true if the token id has been revoked and the token has not expired
+     */
+    public boolean isRevoked(String jti, long nowMillis) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(jti);
+        if (expiresAt == null) {
+            falsePositives.increment();
+            return false;
+        }
+        return expiresAt > nowMillis;
+    }
+
+    /**
+     * @param expiresAtMillis when the token expires; the entry is dropped after that
+     */
+    public void add(String jti, long expiresAtMillis) {
+        writeLock.lock();
+        try {
+            revoked.merge(jti, expiresAtMillis, Math::max);
+            if (revoked.size() > capacity) {
+                rebuild();
+            } else {
+                filter.put(jti);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Replace the contents, e.g. from the persistent table at startup.
+     */
+    public void load(Map<String, Long> entries) {
+        writeLock.lock();
+        try {
+            revoked.clear();
+            revoked.putAll(entries);
+            rebuild();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Drop expired entries and rebuild the filter from what is left.
+     */
+    public void evictExpired(long nowMillis) {
+        writeLock.lock();
+        try {
+            revoked.values().removeIf(expiresAt -> expiresAt <= nowMillis);
+            rebuild();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    int size() {
+        return revoked.size();
+    }
+
+    private void rebuild() {
+        long newCapacity = Math.max(MIN_CAPACITY, revoked.size() * 2L);
+        BloomFilter rebuilt = new BloomFilter(newCapacity, falsePositiveProbability);
+        revoked.keySet().forEach(rebuilt::put);
+        capacity = newCapacity;
+        filter = rebuilt;
+    }
+}
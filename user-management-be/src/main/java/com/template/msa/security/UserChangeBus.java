@@ -0,0 +1,18 @@
+package com.template.msa.security;
+
+import java.util.function.Consumer;
+
+/**
+ * Distributes {@link UserChangeEvent}s to the caches that hold user data.
+ * The default {@link InProcessUserChangeBus} only reaches the local instance; deployments with several
+ * replicas should provide a {@code @Primary} implementation that also relays events to the other nodes.
+ */
+public interface UserChangeBus {
+
+    /**
+     * Deliver the event to every subscriber once the current transaction, if any, has committed.
+     */
+    void publish(UserChangeEvent event);
+
+    void subscribe(Consumer<UserChangeEvent> subscriber);
+}
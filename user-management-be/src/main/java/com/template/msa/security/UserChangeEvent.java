@@ -0,0 +1,14 @@
+package com.template.msa.security;
+
+import java.util.Set;
+
+/**
+ * Notification that a user's authentication-relevant data changed.
+ *
+ * @param userId the id of the changed user
+ * @param emails every email the user was reachable under before and after the change
+ * @param securityVersion the user's security version after the change
+ * @param deleted whether the user no longer exists
+ */
+public record UserChangeEvent(Long userId, Set<String> emails, int securityVersion, boolean deleted) {
+}
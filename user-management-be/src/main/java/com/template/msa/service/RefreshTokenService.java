@@ -0,0 +1,171 @@
+package com.template.msa.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.template.msa.dto.RefreshTokenResponse;
+import com.template.msa.exception.InvalidRefreshTokenException;
+import com.template.msa.model.RefreshToken;
+import com.template.msa.model.User;
+import com.template.msa.repository.RefreshTokenRepository;
+import com.template.msa.security.JpaUserDetailsService;
+import com.template.msa.security.JwtService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Issues and rotates refresh tokens.
+ * <p>
+ * A token is 256 random bits handed to the client once; only its SHA-256 is stored, which is enough
+ * for values that cannot be guessed and keeps lookups to one indexed equality match. Every refresh
+ * exchanges the presented token for a new one in the same family. Presenting an already exchanged
+ * token means it was copied, so the whole family is revoked and both holders must log in again.
+ * <p>
+ * The exception is a replay within {@code jwt.refresh-token.reuse-grace} of the exchange, typically a
+ * client refreshing from two tabs at once or retrying after a lost response. It gets the successor this
+ * instance already issued for the token, or, if the exchange happened on another instance, a second
+ * successor in the same family. Outcomes are counted in {@code auth.refresh}, tagged by {@code outcome}.
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+    private static final int MAX_RECENT_ROTATIONS = 10_000;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtService jwtService;
+    private final JpaUserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
+    private final Duration expiration;
+    private final Duration reuseGrace;
+    private final Cache<String, RefreshTokenResponse> recentRotations;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               JwtService jwtService,
+                               JpaUserDetailsService userDetailsService,
+                               MeterRegistry meterRegistry,
+                               @Value("${jwt.refresh-token.expiration}") long expirationMillis,
+                               @Value("${jwt.refresh-token.reuse-grace:10s}") Duration reuseGrace) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.meterRegistry = meterRegistry;
+        this.expiration = Duration.ofMillis(expirationMillis);
+        this.reuseGrace = reuseGrace;
+        this.recentRotations = Caffeine.newBuilder()
+                .maximumSize(MAX_RECENT_ROTATIONS)
+                .expireAfterWrite(reuseGrace)
+                .build();
+    }
+
+    /**
+     * Start a new token family for a user who has just authenticated.
+     *
+     * @return the raw refresh token for the client
+     */
+    public String issue(User user) {
+        return store(user, random.nextLong());
+    }
+
+    /**
+     * Exchange a refresh token for a new access token and refresh token.
+     *
+     * @throws InvalidRefreshTokenException if the token is unknown, expired, already used outside the
+     *         grace period or predates a change to the user's credentials or role
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public RefreshTokenResponse rotate(String rawToken) {
+        String tokenHash = hash(rawToken);
+        RefreshToken token = refreshTokenRepository.findByTokenHash(tokenHash)
+                .orElseThrow(() -> reject("invalid"));
+        LocalDateTime now = LocalDateTime.now();
+        if (token.getReplacedAt() != null || refreshTokenRepository.markReplaced(token.getId(), now) == 0) {
+            // Losing the claim to a concurrent exchange means the token was replaced just now
+            LocalDateTime replacedAt = token.getReplacedAt() != null ? token.getReplacedAt() : now;
+            if (replacedAt.plus(reuseGrace).isBefore(now)) {
+                // Committed despite the exception: the family stays revoked
+                refreshTokenRepository.deleteByFamilyId(token.getFamilyId());
+                throw reject("reused");
+            }
+            RefreshTokenResponse successor = recentRotations.getIfPresent(tokenHash);
+            if (successor != null) {
+                meterRegistry.counter("auth.refresh", "outcome", "grace").increment();
+                return successor;
+            }
+        }
+        if (!token.getExpiresAt().isAfter(now)) {
+            throw reject("expired");
+        }
+        User user = userDetailsService.loadUserById(token.getUserId());
+        if (user.getSecurityVersion() != token.getSecurityVersion()) {
+            refreshTokenRepository.deleteByFamilyId(token.getFamilyId());
+            throw reject("stale");
+        }
+
+        String refreshToken = store(user, token.getFamilyId());
+        meterRegistry.counter("auth.refresh", "outcome", "rotated").increment();
+        RefreshTokenResponse response = new RefreshTokenResponse(jwtService.generateToken(user), refreshToken);
+        // Before the commit, so a concurrent exchange blocked on this row finds it once unblocked
+        recentRotations.put(tokenHash, response);
+        return response;
+    }
+
+    /**
+     * Revoke the token and every other token from the same login, e.g. on logout.
+     * Unknown tokens are ignored.
+     */
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.deleteByFamilyId(token.getFamilyId()));
+    }
+
+    /**
+     * Revoke every refresh token of the user, e.g. on logout from all devices.
+     */
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    private String store(User user, long familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(hash(rawToken));
+        token.setUserId(user.getId());
+        token.setFamilyId(familyId);
+        token.setSecurityVersion(user.getSecurityVersion());
+        token.setCreatedAt(now);
+        token.setExpiresAt(now.plus(expiration));
+        refreshTokenRepository.save(token);
+        return rawToken;
+    }
+
+    private InvalidRefreshTokenException reject(String outcome) {
+        meterRegistry.counter("auth.refresh", "outcome", outcome).increment();
+        return new InvalidRefreshTokenException();
+    }
+
+    static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
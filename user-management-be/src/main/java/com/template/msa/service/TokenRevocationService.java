@@ -0,0 +1,99 @@
+package com.template.msa.service;
+
+import com.template.msa.model.RevokedToken;
+import com.template.msa.repository.RevokedTokenRepository;
+import com.template.msa.repository.UserRepository;
+import com.template.msa.security.JwtService;
+import com.template.msa.security.SecurityVersionRegistry;
+import com.template.msa.security.TokenDenylist;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Revokes individual access tokens before they expire.
+ * Revocations are written to {@code revoked_tokens} and mirrored in the in-memory {@link TokenDenylist}
+ * the authentication filter checks. The denylist is rebuilt from the table at startup and picks up
+ * revocations made by other instances every {@code jwt.revocation.sync-interval}.
+ * The same sync reads the security versions of recently changed users into the
+ * {@link SecurityVersionRegistry}, so revoking all of a user's sessions, changing their role or
+ * deleting them takes effect on every instance within one interval.
+ */
+@Service
+@Transactional
+public class TokenRevocationService {
+
+    /** Re-read this far back on each sync so rows written with a slightly skewed clock are not missed. */
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TokenDenylist tokenDenylist;
+    private final UserRepository userRepository;
+    private final SecurityVersionRegistry securityVersionRegistry;
+    private volatile LocalDateTime lastSync;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository, TokenDenylist tokenDenylist,
+                                  UserRepository userRepository, SecurityVersionRegistry securityVersionRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.tokenDenylist = tokenDenylist;
+        this.userRepository = userRepository;
+        this.securityVersionRegistry = securityVersionRegistry;
+    }
+
+    @PostConstruct
+    public void loadDenylist() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Long> entries = new HashMap<>();
+        revokedTokenRepository.findByExpiresAtAfter(now)
+                .forEach(token -> entries.put(token.getJti(), toMillis(token.getExpiresAt())));
+        tokenDenylist.load(entries);
+        lastSync = now;
+    }
+
+    /**
+     * Revoke the access token the claims were read from. Tokens without a {@code jti} are ignored.
+     */
+    public void revoke(Claims claims) {
+        String jti = claims.getId();
+        if (jti == null || claims.getExpiration() == null) {
+            return;
+        }
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault());
+        revokedTokenRepository.save(new RevokedToken(jti, claims.get(JwtService.CLAIM_USER_ID, Long.class),
+                expiresAt, LocalDateTime.now()));
+        tokenDenylist.add(jti, claims.getExpiration().getTime());
+    }
+
+    // Not read-only, so it reads the primary: a replica lagging by more than SYNC_OVERLAP would lose revocations
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval:PT5S}")
+    @Transactional
+    public void syncFromDatabase() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = lastSync.minus(SYNC_OVERLAP);
+        List<RevokedToken> recent = revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(since, now);
+        recent.forEach(token -> tokenDenylist.add(token.getJti(), toMillis(token.getExpiresAt())));
+        userRepository.findSecurityVersionsChangedSince(since).forEach(user -> securityVersionRegistry.refresh(
+                user.getId(), user.getVersion(), Boolean.TRUE.equals(user.getDeleted())));
+        lastSync = now;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.purge.interval:PT10M}", initialDelayString = "${jwt.purge.interval:PT10M}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void evictExpired() {
+        tokenDenylist.evictExpired(System.currentTimeMillis());
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
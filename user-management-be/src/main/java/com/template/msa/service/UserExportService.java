@@ -0,0 +1,136 @@
+package com.template.msa.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.template.msa.model.User;
+import com.template.msa.repository.UserRepository;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service class for streaming the user directory to bulk consumers.
+ * Rows are written as they are scrolled from the database, so memory use does not grow with the table.
+ */
+@Service
+public class UserExportService {
+
+    private static final String CSV_HEADER = "id,username,email,role,createdAt,updatedAt";
+
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public UserExportService(UserRepository userRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Write every user to the given stream in the requested format.
+     *
+     * @param format the output format
+     * @param out the stream to write to; it is flushed but not closed
+     * @throws IOException if writing to the stream fails
+     */
+    @Transactional(readOnly = true)
+    public void export(UserFileFormat format, OutputStream out) throws IOException {
+        // Keep the scrolled rows out of the second-level cache for this transaction's entity manager
+        entityManager.setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<User> users = userRepository.streamAllByOrderByIdAsc()) {
+            if (format == UserFileFormat.CSV) {
+                writeCsv(users.iterator(), writer);
+            } else {
+                writeNdjson(users.iterator(), writer);
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeCsv(Iterator<User> users, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        int rows = 0;
+        while (users.hasNext()) {
+            User user = users.next();
+            writer.write(String.valueOf(user.getId()));
+            writer.write(',');
+            writer.write(csvField(user.getDisplayUsername()));
+            writer.write(',');
+            writer.write(csvField(user.getEmail()));
+            writer.write(',');
+            writer.write(csvField(user.getRole() != null ? user.getRole().name() : null));
+            writer.write(',');
+            writer.write(csvField(user.getCreatedAt() != null ? user.getCreatedAt().toString() : null));
+            writer.write(',');
+            writer.write(csvField(user.getUpdatedAt() != null ? user.getUpdatedAt().toString() : null));
+            writer.write('\n');
+            release(user, ++rows, writer);
+        }
+    }
+
+    private void writeNdjson(Iterator<User> users, Writer writer) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        // NDJSON needs a newline, not a space, between root-level values
+        generator.setRootValueSeparator(null);
+        int rows = 0;
+        while (users.hasNext()) {
+            User user = users.next();
+            generator.writeStartObject();
+            generator.writeNumberField("id", user.getId());
+            generator.writeStringField("username", user.getDisplayUsername());
+            generator.writeStringField("email", user.getEmail());
+            generator.writeStringField("role", user.getRole() != null ? user.getRole().name() : null);
+            generator.writeStringField("createdAt", user.getCreatedAt() != null ? user.getCreatedAt().toString() : null);
+            generator.writeStringField("updatedAt", user.getUpdatedAt() != null ? user.getUpdatedAt().toString() : null);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            if (++rows % UserRepository.EXPORT_FETCH_SIZE == 0) {
+                generator.flush();
+            }
+            release(user, rows, writer);
+        }
+        generator.flush();
+    }
+
+    /**
+     * Drop the row from the persistence context once written, and flush the writer every fetch-sized batch
+     * so the client sees progress while the next batch is fetched.
+     */
+    private void release(User user, int rows, Writer writer) throws IOException {
+        entityManager.detach(user);
+        if (rows % UserRepository.EXPORT_FETCH_SIZE == 0) {
+            entityManager.clear();
+            writer.flush();
+        }
+    }
+
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        // Neutralise spreadsheet formula injection in downstream tools
+        if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+            quote = true;
+        }
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+}
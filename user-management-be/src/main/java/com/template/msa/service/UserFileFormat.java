@@ -0,0 +1,42 @@
+package com.template.msa.service;
+
+import com.template.msa.exception.BadRequestException;
+import org.springframework.http.MediaType;
+
+/**
+ * Line-oriented file formats accepted by the bulk user import and produced by the export.
+ */
+public enum UserFileFormat {
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    UserFileFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Resolve the format from a request content type.
+     *
+     * @throws BadRequestException if the content type is not a supported format
+     */
+    public static UserFileFormat fromMediaType(MediaType mediaType) {
+        for (UserFileFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(mediaType)) {
+                return format;
+            }
+        }
+        throw new BadRequestException("Unsupported content type: " + mediaType);
+    }
+}
@@ -0,0 +1,352 @@
+package com.template.msa.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.template.msa.dto.UserImportReport;
+import com.template.msa.dto.UserImportRow;
+import com.template.msa.exception.BadRequestException;
+import com.template.msa.model.Role;
+import com.template.msa.model.User;
+import com.template.msa.repository.UserRepository;
+import com.template.msa.security.OffloadingPasswordEncoder;
+import com.template.msa.util.DataIntegrityViolations;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Service class for importing large numbers of users from an uploaded file.
+ * The upload is read as a stream and processed in chunks: each chunk is validated, de-duplicated,
+ * checked against existing users with a single query, hashed in parallel and inserted as a JDBC batch.
+ */
+@Slf4j
+@Service
+public class UserImportService {
+
+    private final UserRepository userRepository;
+    private final UserStatsService userStatsService;
+    private final OffloadingPasswordEncoder passwordEncoder;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    @Autowired
+    public UserImportService(UserRepository userRepository,
+                             UserStatsService userStatsService,
+                             OffloadingPasswordEncoder passwordEncoder,
+                             EntityManager entityManager,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${user.import.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.userStatsService = userStatsService;
+        this.passwordEncoder = passwordEncoder;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Import users from the given stream.
+     *
+     * @param format the format of the upload
+     * @param in the uploaded file
+     * @return a report with the number of created users, the reason each rejected row failed and, if a
+     *         record could not be read, the row at which the import stopped
+     * @throws IOException if the start of the upload, such as the CSV header, cannot be read
+     */
+    public UserImportReport importUsers(UserFileFormat format, InputStream in) throws IOException {
+        UserImportReport report = new UserImportReport();
+        RowReader rows = format == UserFileFormat.CSV ? csvRows(in) : ndjsonRows(in);
+
+        List<NumberedRow> chunk = new ArrayList<>(chunkSize);
+        long rowNumber = 0;
+        IOException unreadable = null;
+        while (true) {
+            UserImportRow row;
+            try {
+                row = rows.next();
+            } catch (IOException e) {
+                // Earlier chunks are committed, so stop here and still report them
+                unreadable = e;
+                break;
+            }
+            if (row == null) {
+                break;
+            }
+            chunk.add(new NumberedRow(++rowNumber, row));
+            report.setReceived(rowNumber);
+            if (chunk.size() == chunkSize) {
+                processChunk(chunk, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, report);
+        }
+        if (unreadable != null) {
+            report.setReceived(rowNumber + 1);
+            report.stopAt(rowNumber + 1, unreadableRecordMessage(unreadable));
+        }
+        return report;
+    }
+
+    private void processChunk(List<NumberedRow> chunk, UserImportReport report) {
+        List<NumberedRow> candidates = validateAndDeduplicate(chunk, report);
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        candidates = excludeExisting(candidates, report);
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        List<User> users = hashAndBuild(candidates);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveAll(users);
+                userRepository.flush();
+                users.stream()
+                        .collect(Collectors.groupingBy(User::getRole, Collectors.counting()))
+                        .forEach(userStatsService::recordCreated);
+                entityManager.clear();
+            });
+            report.setCreated(report.getCreated() + users.size());
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent writer took one of the names after our check, or a row breaks another
+            // constraint; isolate the offending rows
+            insertIndividually(candidates, users, report);
+        }
+    }
+
+    private List<NumberedRow> validateAndDeduplicate(List<NumberedRow> chunk, UserImportReport report) {
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        List<NumberedRow> candidates = new ArrayList<>(chunk.size());
+        for (NumberedRow numbered : chunk) {
+            Set<ConstraintViolation<UserImportRow>> violations = validator.validate(numbered.row());
+            if (!violations.isEmpty()) {
+                ConstraintViolation<UserImportRow> violation = violations.iterator().next();
+                report.addError(numbered.number(), violation.getPropertyPath().toString(), violation.getMessage());
+            } else if (!usernames.add(numbered.row().getUsername())) {
+                report.addError(numbered.number(), "username", "Duplicate username in import");
+            } else if (!emails.add(numbered.row().getEmail())) {
+                report.addError(numbered.number(), "email", "Duplicate email in import");
+            } else {
+                candidates.add(numbered);
+            }
+        }
+        return candidates;
+    }
+
+    private List<NumberedRow> excludeExisting(List<NumberedRow> candidates, UserImportReport report) {
+        List<String> usernames = candidates.stream().map(r -> r.row().getUsername()).toList();
+        List<String> emails = candidates.stream().map(r -> r.row().getEmail()).toList();
+
+        Set<String> takenUsernames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        for (UserRepository.IdentityView existing : userRepository.findIdentities(usernames, emails)) {
+            takenUsernames.add(existing.getUsername());
+            takenEmails.add(existing.getEmail());
+        }
+        if (takenUsernames.isEmpty()) {
+            return candidates;
+        }
+
+        List<NumberedRow> remaining = new ArrayList<>(candidates.size());
+        for (NumberedRow numbered : candidates) {
+            if (takenUsernames.contains(numbered.row().getUsername())) {
+                report.addError(numbered.number(), "username", "Username already exists");
+            } else if (takenEmails.contains(numbered.row().getEmail())) {
+                report.addError(numbered.number(), "email", "Email already exists");
+            } else {
+                remaining.add(numbered);
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Hash the chunk's passwords in parallel on the shared hashing pool. Submission blocks while the pool
+     * is saturated, so an import slows down instead of starving interactive logins.
+     */
+    private List<User> hashAndBuild(List<NumberedRow> candidates) {
+        List<CompletableFuture<String>> hashes = candidates.stream()
+                .map(numbered -> passwordEncoder.encodeWhenAvailable(numbered.row().getPassword()))
+                .toList();
+        List<User> users = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            users.add(toUser(candidates.get(i).row(), hashes.get(i).join()));
+        }
+        return users;
+    }
+
+    private User toUser(UserImportRow row, String passwordHash) {
+        User user = new User();
+        user.setUsername(row.getUsername());
+        user.setEmail(row.getEmail());
+        user.setPassword(passwordHash);
+        user.setRole(row.getRole() == null || row.getRole().isEmpty() ? Role.USER : Role.valueOf(row.getRole()));
+        return user;
+    }
+
+    private void insertIndividually(List<NumberedRow> candidates, List<User> users, UserImportReport report) {
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            user.setId(null);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    userRepository.saveAndFlush(user);
+                    userStatsService.recordCreated(user.getRole(), 1);
+                    entityManager.clear();
+                });
+                report.setCreated(report.getCreated() + 1);
+            } catch (DataIntegrityViolationException e) {
+                long row = candidates.get(i).number();
+                if (DataIntegrityViolations.isUniqueViolation(e)) {
+                    String field = DataIntegrityViolations.conflictingField(e);
+                    report.addError(row, field, conflictMessage(field));
+                } else {
+                    log.warn("Import row {} was rejected by the database", row, e);
+                    report.addError(row, null, "Violates a database constraint");
+                }
+            }
+        }
+    }
+
+    private static String conflictMessage(String field) {
+        if ("username".equals(field)) {
+            return "Username already exists";
+        }
+        if ("email".equals(field)) {
+            return "Email already exists";
+        }
+        return "Username or email already exists";
+    }
+
+    private static String unreadableRecordMessage(IOException e) {
+        if (e instanceof JsonProcessingException json) {
+            return "Unreadable record: " + json.getOriginalMessage();
+        }
+        return "Unable to read import file";
+    }
+
+    private RowReader ndjsonRows(InputStream in) throws IOException {
+        MappingIterator<UserImportRow> values = objectMapper.readerFor(UserImportRow.class).readValues(in);
+        return () -> values.hasNextValue() ? values.nextValue() : null;
+    }
+
+    private RowReader csvRows(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null) {
+            return () -> null;
+        }
+        List<String> columns = parseCsvLine(header).stream().map(c -> c.trim().toLowerCase()).toList();
+        int usernameIndex = requireColumn(columns, "username");
+        int emailIndex = requireColumn(columns, "email");
+        int passwordIndex = requireColumn(columns, "password");
+        int roleIndex = columns.indexOf("role");
+
+        return () -> {
+            String line;
+            do {
+                line = reader.readLine();
+            } while (line != null && line.isBlank());
+            if (line == null) {
+                return null;
+            }
+            List<String> values = parseCsvLine(line);
+            return new UserImportRow(
+                    column(values, usernameIndex),
+                    column(values, emailIndex),
+                    column(values, passwordIndex),
+                    roleIndex >= 0 ? column(values, roleIndex) : null);
+        };
+    }
+
+    private static int requireColumn(List<String> columns, String name) {
+        int index = columns.indexOf(name);
+        if (index < 0) {
+            throw new BadRequestException("Missing CSV column: " + name);
+        }
+        return index;
+    }
+
+    private static String column(List<String> values, int index) {
+        return index < values.size() ? values.get(index) : null;
+    }
+
+    /**
+     * Split one CSV record, honouring double-quoted fields with {@code ""} escapes.
+     * Quoted fields spanning several lines are not supported.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    /**
+     * The records of an upload, read one at a time.
+     */
+    private interface RowReader {
+
+        /**
+         * @return the next record, or null at the end of the upload
+         * @throws IOException if the record cannot be read or parsed
+         */
+        UserImportRow next() throws IOException;
+    }
+
+    private record NumberedRow(long number, UserImportRow row) {
+    }
+}
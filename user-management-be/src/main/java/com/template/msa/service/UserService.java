@@ -1,31 +1,68 @@
 package com.template.msa.service;
 
+import com.template.msa.dto.CursorPage;
+import com.template.msa.dto.UserField;
+import com.template.msa.dto.UserPatch;
+import com.template.msa.dto.UserResponse;
+import com.template.msa.dto.UserSearchCriteria;
+import com.template.msa.exception.BadRequestException;
+import com.template.msa.exception.PreconditionFailedException;
 import com.template.msa.exception.ResourceNotFoundException;
+import com.template.msa.model.Role;
 import com.template.msa.model.User;
 import com.template.msa.repository.UserRepository;
+import com.template.msa.repository.UserSpecifications;
+import com.template.msa.security.AuthenticatedUser;
+import com.template.msa.security.JpaUserDetailsService;
+import com.template.msa.security.UserChangeBus;
+import com.template.msa.security.UserChangeEvent;
+import com.template.msa.util.CursorUtil;
+import com.template.msa.util.EntityTags;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service class for managing users.
+ * Methods that only read are read-only transactions: Hibernate skips dirty checking and flushing for
+ * them, and with read replicas configured they run on a replica, so they may lag behind recent writes.
  */
 @Service
 @Transactional
 public class UserService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserChangeBus userChangeBus;
+    private final JpaUserDetailsService userDetailsService;
+    private final UserStatsService userStatsService;
 
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository,
+                       PasswordEncoder passwordEncoder,
+                       UserChangeBus userChangeBus,
+                       JpaUserDetailsService userDetailsService,
+                       UserStatsService userStatsService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userChangeBus = userChangeBus;
+        this.userDetailsService = userDetailsService;
+        this.userStatsService = userStatsService;
     }
 
     /**
@@ -33,10 +70,134 @@ public class UserService {
      *
      * @return list of all users
      */
+    @Transactional(readOnly = true)
     public List<User> findAll() {
         return userRepository.findAll();
     }
 
+    /**
+     * Get one page of users ordered by id, seeking past the cursor instead of using OFFSET.
+     * Only the columns of the requested fields are selected.
+     *
+     * @param cursor opaque cursor from a previous page, or null for the first page
+     * @param limit requested page size, clamped to [1, {@value #MAX_PAGE_SIZE}]
+     * @param includeTotal whether to also run a count query over the whole table
+     * @param fields the fields to return; the others are left null
+     * @return the page of users with the cursor for the next page
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<UserResponse> findPage(String cursor, int limit, boolean includeTotal, Set<UserField> fields) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long afterId = CursorUtil.decodeId(cursor);
+
+        // Fetch one extra row to learn whether another page exists without a count query
+        List<UserResponse> users = fields.containsAll(UserField.ALL)
+                ? userRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize + 1), UserResponse.class)
+                : userRepository.findFields(UserSpecifications.idAfter(afterId), Sort.by("id"), pageSize + 1,
+                        withFields(fields, UserField.ID));
+        String next = null;
+        if (users.size() > pageSize) {
+            users = users.subList(0, pageSize);
+            next = CursorUtil.encodeId(users.get(pageSize - 1).getId());
+        }
+        users.forEach(user -> user.retain(fields));
+
+        Long total = includeTotal ? userRepository.count() : null;
+        return new CursorPage<>(users, next, total);
+    }
+
+    /**
+     * Entity tag of the page {@link #findPage} would return, from the ids and modification times alone.
+     * It changes when a user on the page is added, removed or updated, or when the total changes.
+     *
+     * @param cursor opaque cursor from a previous page, or null for the first page
+     * @param limit requested page size, clamped to [1, {@value #MAX_PAGE_SIZE}]
+     * @param includeTotal whether the page carries the total number of users
+     * @param fields the fields the page carries
+     * @return a strong entity tag for the page
+     */
+    @Transactional(readOnly = true)
+    public String getPageTag(String cursor, int limit, boolean includeTotal, Set<UserField> fields) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long afterId = CursorUtil.decodeId(cursor);
+
+        List<UserRepository.VersionView> versions =
+                userRepository.findVersionsByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize + 1));
+        boolean hasMore = versions.size() > pageSize;
+        List<String> tags = versions.stream()
+                .limit(pageSize)
+                .map(version -> EntityTags.version(version.getId(), version.getVersion()))
+                .toList();
+        Long total = includeTotal ? userRepository.count() : null;
+        return EntityTags.ofList(tags, hasMore + ":" + total + UserField.variant(fields));
+    }
+
+    /**
+     * The user's version and modification time, without loading it.
+     *
+     * @param id the ID of the user
+     * @return the user's version and {@code updatedAt}
+     * @throws ResourceNotFoundException if user not found
+     */
+    @Transactional(readOnly = true)
+    public UserRepository.VersionView getVersion(Long id) {
+        return userRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+    }
+
+    /**
+     * Search users by username or email, optionally filtered by role, one keyset page at a time.
+     * The cursor carries the sort value and id of the last row, so later pages seek instead of using OFFSET.
+     *
+     * @param criteria what to match and how to order it
+     * @param cursor opaque cursor from a previous page with the same sort, or null for the first page
+     * @param limit requested page size, clamped to [1, {@value #MAX_PAGE_SIZE}]
+     * @param includeTotal whether to also count every matching user
+     * @param fields the fields to return; the others are left null
+     * @return the page of users with the cursor for the next page
+     * @throws BadRequestException if the cursor belongs to a different sort
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<UserResponse> search(UserSearchCriteria criteria, String cursor, int limit,
+                                           boolean includeTotal, Set<UserField> fields) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        UserSearchCriteria.SortField sortField = criteria.sortField();
+        CursorUtil.Key after = CursorUtil.decodeKey(sortField.getAttribute(), cursor);
+
+        // The cursor needs the id and sort value of the last row even when they were not asked for
+        List<UserResponse> users = userRepository.findFields(UserSpecifications.search(criteria, after),
+                UserSpecifications.sort(criteria), pageSize + 1, withFields(fields, UserField.ID, sortField.getField()));
+        String next = null;
+        if (users.size() > pageSize) {
+            users = users.subList(0, pageSize);
+            UserResponse last = users.get(pageSize - 1);
+            next = CursorUtil.encodeKey(sortField.getAttribute(), last.getId(), sortField.valueOf(last));
+        }
+        users.forEach(user -> user.retain(fields));
+
+        Long total = includeTotal ? userRepository.count(UserSpecifications.search(criteria, null)) : null;
+        return new CursorPage<>(users, next, total);
+    }
+
+    /**
+     * Get the API view of a user, selecting only the columns of the requested fields.
+     * The id and modification time are always filled in so callers can build validators;
+     * call {@link UserResponse#retain} before returning it.
+     *
+     * @param id the ID of the user
+     * @param fields the fields to return
+     * @return the user
+     * @throws ResourceNotFoundException if user not found
+     */
+    @Transactional(readOnly = true)
+    public UserResponse findResponseById(Long id, Set<UserField> fields) {
+        Optional<UserResponse> user = fields.containsAll(UserField.ALL)
+                ? userRepository.findById(id, UserResponse.class)
+                : userRepository.findFields(UserSpecifications.idEquals(id), Sort.unsorted(), 1,
+                        withFields(fields, UserField.ID, UserField.UPDATED_AT)).stream().findFirst();
+        return user.orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+    }
+
     /**
      * Get user by ID.
      *
@@ -44,6 +205,7 @@ public class UserService {
      * @return the user
      * @throws ResourceNotFoundException if user not found
      */
+    @Transactional(readOnly = true)
     public User findById(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
@@ -51,22 +213,21 @@ public class UserService {
 
     /**
      * Create a new user.
+     * Uniqueness of username and email is enforced by the database constraints rather than by
+     * pre-checks, so the insert is the only round trip and concurrent registrations cannot race.
      *
-     * @param user the user to create
+     * @param user the user to create, with a raw password
      * @return the created user
+     * @throws org.springframework.dao.DataIntegrityViolationException if the username or email is taken
      */
     public User create(User user) {
-        // Check if username or email already exists
-        if (userRepository.existsByUsername(user.getUsername())) {
-            throw new IllegalArgumentException("Username already exists");
-        }
-        if (userRepository.existsByEmail(user.getEmail())) {
-            throw new IllegalArgumentException("Email already exists");
-        }
-
-        // Encode password
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        // Flush so a constraint violation surfaces here, not at commit
+        User saved = userRepository.saveAndFlush(user);
+        userStatsService.recordCreated(saved.getRole(), 1);
+        userChangeBus.publish(new UserChangeEvent(saved.getId(), Set.of(saved.getEmail()),
+                saved.getSecurityVersion(), false));
+        return saved;
     }
 
     /**
@@ -77,29 +238,101 @@ public class UserService {
      * @return the updated user
      */
     public User update(Long id, User userDetails) {
+        return applyChanges(findById(id), userDetails.getDisplayUsername(), userDetails.getEmail(),
+                userDetails.getPassword(), userDetails.getRole());
+    }
+
+    /**
+     * Apply a JSON Merge Patch to a user. Only the fields present in the patch are written, and
+     * the UPDATE lists only the columns whose value actually changed.
+     *
+     * @param id the ID of the user to patch
+     * @param patch the fields to change
+     * @param ifMatch the If-Match header, or null to skip the precondition
+     * @return the patched user, unchanged and not written if the patch changes nothing
+     * @throws ResourceNotFoundException if user not found
+     * @throws PreconditionFailedException if {@code ifMatch} does not name the current revision
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the user is updated concurrently
+     */
+    public User patch(Long id, UserPatch patch, String ifMatch) {
         User user = findById(id);
+        if (ifMatch != null && !EntityTags.matches(ifMatch, user.getId(), user.getVersion())) {
+            throw new PreconditionFailedException("User " + id + " has been modified since it was read");
+        }
+        return applyChanges(user, patch.getUsername(), patch.getEmail(), patch.getPassword(), patch.getRole());
+    }
+
+    /**
+     * Copy the given values onto a managed user; null values leave the field as it is.
+     * The @Version check on flush turns a concurrent update into an optimistic-lock failure.
+     */
+    private User applyChanges(User user, String username, String email, String rawPassword, Role role) {
+        String previousEmail = user.getEmail();
+        Role previousRole = user.getRole();
+        boolean changed = false;
+        boolean credentialsChanged = false;
+
+        if (username != null && !username.equals(user.getDisplayUsername())) {
+            user.setUsername(username);
+            changed = true;
+        }
+        if (email != null && !email.equals(previousEmail)) {
+            user.setEmail(email);
+            credentialsChanged = true;
+        }
+        if (rawPassword != null && !rawPassword.isEmpty()) {
+            user.setPassword(passwordEncoder.encode(rawPassword));
+            credentialsChanged = true;
+        }
+        if (role != null && role != previousRole) {
+            user.setRole(role);
+            credentialsChanged = true;
+        }
+        if (!changed && !credentialsChanged) {
+            return user;
+        }
 
-        // Update fields
-        user.setUsername(userDetails.getUsername());
-        user.setEmail(userDetails.getEmail());
-        if (userDetails.getPassword() != null && !userDetails.getPassword().isEmpty()) {
-            user.setPassword(passwordEncoder.encode(userDetails.getPassword()));
+        // Outstanding tokens carry the old email/role; retire them
+        if (credentialsChanged) {
+            user.setSecurityVersion(user.getSecurityVersion() + 1);
         }
-        user.setRole(userDetails.getRole());
 
-        return userRepository.save(user);
+        // Flush so a version conflict surfaces before the change is announced
+        User saved = userRepository.saveAndFlush(user);
+        userStatsService.recordRoleChanged(previousRole, saved.getRole());
+        Set<String> emails = previousEmail.equals(saved.getEmail())
+                ? Set.of(previousEmail)
+                : Set.of(previousEmail, saved.getEmail());
+        userChangeBus.publish(new UserChangeEvent(saved.getId(), emails, saved.getSecurityVersion(), false));
+        return saved;
     }
 
     /**
-     * Delete a user.
+     * Delete a user. The row is only marked deleted, with a single UPDATE, and disappears from every
+     * read at once; {@link DeletedUserPurger} removes it and its refresh tokens later.
+     * The role and email for the stats and cache eviction come back from the UPDATE itself.
      *
      * @param id the ID of the user to delete
+     * @throws ResourceNotFoundException if user not found
      */
     public void delete(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("User not found with id: " + id);
-        }
-        userRepository.deleteById(id);
+        UserRepository.DeletedUserView deleted = userRepository.softDeleteById(id, LocalDateTime.now())
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        userStatsService.recordDeleted(deleted.getRole());
+        userChangeBus.publish(new UserChangeEvent(id, Set.of(deleted.getEmail()), deleted.getVersion(), true));
+    }
+
+    /**
+     * End every session of a user: bumping the security version invalidates all access tokens and
+     * refresh tokens issued so far.
+     *
+     * @param id the ID of the user
+     */
+    public void revokeSessions(Long id) {
+        User user = findById(id);
+        user.setSecurityVersion(user.getSecurityVersion() + 1);
+        User saved = userRepository.save(user);
+        userChangeBus.publish(new UserChangeEvent(id, Set.of(saved.getEmail()), saved.getSecurityVersion(), false));
     }
 
     /**
@@ -108,19 +341,41 @@ public class UserService {
      * @return the current user
      */
     public User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("Current user not found"));
+        AuthenticatedUser currentUser = AuthenticatedUser.from(SecurityContextHolder.getContext().getAuthentication());
+        if (currentUser == null) {
+            throw new ResourceNotFoundException("Current user not found");
+        }
+        return getCurrentUser(currentUser);
+    }
+
+    /**
+     * Get the full record of the given authenticated user, served from the second-level cache on a hit.
+     * Not a read-only transaction: like every user details lookup it runs on the primary, so callers
+     * see their own changes at once.
+     *
+     * @param currentUser the authenticated caller
+     * @return the current user
+     */
+    public User getCurrentUser(AuthenticatedUser currentUser) {
+        return userDetailsService.loadUserById(currentUser.id());
     }
 
     /**
      * Check if the given user ID belongs to the current user.
+     * Answered from the authenticated principal without loading the user.
      *
      * @param userId the user ID to check
      * @return true if the user ID belongs to the current user
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public boolean isCurrentUser(Long userId) {
-        User currentUser = getCurrentUser();
-        return currentUser.getId().equals(userId);
+        AuthenticatedUser currentUser = AuthenticatedUser.from(SecurityContextHolder.getContext().getAuthentication());
+        return currentUser != null && currentUser.id().equals(userId);
+    }
+
+    private static Set<UserField> withFields(Set<UserField> fields, UserField... required) {
+        Set<UserField> selected = EnumSet.copyOf(fields);
+        selected.addAll(Arrays.asList(required));
+        return selected;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,124 @@
+package com.template.msa.service;
+
+import com.template.msa.model.Role;
+import com.template.msa.model.UserDailyStats;
+import com.template.msa.repository.UserDailyStatsRepository;
+import com.template.msa.repository.UserRepository;
+import com.template.msa.repository.UserRoleCountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Corrects drift in the incrementally maintained user statistics.
+ * <p>
+ * Drift is measured in one read-only REPEATABLE READ transaction, comparing the counters against
+ * the users table as of the same snapshot. It is then applied as an increment in a second transaction.
+ * Increments committed by writers in between are preserved, and no row lock is held during the scan.
+ * Daily signups are only ever corrected upwards: users deleted since signing up no longer appear
+ * in the users table, and daily deletions cannot be recomputed.
+ * <p>
+ * Both steps run while an outer transaction holds a database advisory lock, so when every instance
+ * schedules the job only one reconciles at a time; the others skip the run rather than apply the
+ * same drift again. Corrections are counted in {@code user.stats.corrections}, tagged by {@code table}.
+ */
+@Slf4j
+@Component
+public class UserStatsReconciler {
+
+    private final UserRepository userRepository;
+    private final UserRoleCountRepository roleCountRepository;
+    private final UserDailyStatsRepository dailyStatsRepository;
+    private final TransactionTemplate lockTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate snapshotTemplate;
+    private final Counter roleCountCorrections;
+    private final Counter dailyCorrections;
+    private final int reconcileDays;
+
+    public UserStatsReconciler(UserRepository userRepository,
+                               UserRoleCountRepository roleCountRepository,
+                               UserDailyStatsRepository dailyStatsRepository,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${user.stats.reconcile-days:2}") int reconcileDays) {
+        this.userRepository = userRepository;
+        this.roleCountRepository = roleCountRepository;
+        this.dailyStatsRepository = dailyStatsRepository;
+        this.lockTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTemplate.setReadOnly(true);
+        this.roleCountCorrections = Counter.builder("user.stats.corrections").tag("table", "user_role_counts")
+                .description("Drift corrected in the user statistics")
+                .register(meterRegistry);
+        this.dailyCorrections = Counter.builder("user.stats.corrections").tag("table", "user_daily_stats")
+                .description("Drift corrected in the user statistics")
+                .register(meterRegistry);
+        this.reconcileDays = reconcileDays;
+    }
+
+    @Scheduled(fixedDelayString = "${user.stats.reconcile-interval:PT1H}")
+    public void reconcile() {
+        LocalDate from = LocalDate.now().minusDays(reconcileDays - 1L);
+        Boolean reconciled = lockTemplate.execute(status -> {
+            if (!roleCountRepository.tryLockReconciliation()) {
+                return false;
+            }
+            reconcileRoleCounts();
+            reconcileSignups(from);
+            return true;
+        });
+        if (!Boolean.TRUE.equals(reconciled)) {
+            log.debug("User stats are being reconciled by another instance, skipping");
+        }
+    }
+
+    void reconcileRoleCounts() {
+        Map<Role, Long> drift = snapshotTemplate.execute(status -> {
+            Map<Role, Long> delta = new EnumMap<>(Role.class);
+            userRepository.countByRole().forEach(count -> delta.merge(count.getRole(), count.getCount(), Long::sum));
+            roleCountRepository.sumByRole().forEach(count -> delta.merge(count.getRole(), -count.getCount(), Long::sum));
+            return delta;
+        });
+        transactionTemplate.executeWithoutResult(status -> drift.forEach((role, delta) -> {
+            if (delta != 0) {
+                log.warn("User count for role {} drifted by {}, correcting", role, -delta);
+                roleCountRepository.increment(role, (short) 0, delta);
+                roleCountCorrections.increment(Math.abs(delta));
+            }
+        }));
+    }
+
+    void reconcileSignups(LocalDate from) {
+        Map<UserDailyStats.Key, Long> missing = snapshotTemplate.execute(status -> {
+            Map<UserDailyStats.Key, Long> delta = new HashMap<>();
+            userRepository.countSignupsSince(from.atStartOfDay()).forEach(count ->
+                    delta.merge(new UserDailyStats.Key(count.getDay(), count.getRole()), count.getCount(), Long::sum));
+            dailyStatsRepository.findByDayGreaterThanEqualOrderByDayAsc(from).forEach(stats ->
+                    delta.merge(new UserDailyStats.Key(stats.getDay(), stats.getRole()), -stats.getSignups(), Long::sum));
+            return delta;
+        });
+        transactionTemplate.executeWithoutResult(status -> missing.forEach((key, delta) -> {
+            if (delta > 0) {
+                log.warn("Signups for {} {} undercounted by {}, correcting", key.getDay(), key.getRole(), delta);
+                dailyStatsRepository.increment(key.getDay(), key.getRole(), delta, 0);
+                dailyCorrections.increment(delta);
+            }
+        }));
+    }
+}
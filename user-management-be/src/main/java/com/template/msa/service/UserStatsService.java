@@ -0,0 +1,103 @@
+package com.template.msa.service;
+
+import com.template.msa.dto.UserStats;
+import com.template.msa.model.Role;
+import com.template.msa.model.UserDailyStats;
+import com.template.msa.repository.UserDailyStatsRepository;
+import com.template.msa.repository.UserRepository;
+import com.template.msa.repository.UserRoleCountRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Maintains the user statistics shown on the dashboard.
+ * The record methods join the caller's transaction, so counts change exactly when the user change
+ * commits. Each role's count is spread over {@value #SHARDS} rows and a writer updates a random
+ * one, so concurrent signups rarely wait on each other. Rows are created by the first change that
+ * needs them, so counting never depends on the reconciliation job having run. Reading costs a fixed
+ * number of rows however many users there are. {@link UserStatsReconciler} corrects any drift.
+ */
+@Service
+@Transactional
+public class UserStatsService {
+
+    public static final int SHARDS = 16;
+    public static final int DEFAULT_DAYS = 30;
+    public static final int MAX_DAYS = 366;
+
+    private final UserRoleCountRepository roleCountRepository;
+    private final UserDailyStatsRepository dailyStatsRepository;
+
+    public UserStatsService(UserRoleCountRepository roleCountRepository,
+                            UserDailyStatsRepository dailyStatsRepository) {
+        this.roleCountRepository = roleCountRepository;
+        this.dailyStatsRepository = dailyStatsRepository;
+    }
+
+    public void recordCreated(Role role, long count) {
+        incrementRole(role, count);
+        incrementDay(role, count, 0);
+    }
+
+    public void recordDeleted(Role role) {
+        incrementRole(role, -1);
+        incrementDay(role, 0, 1);
+    }
+
+    public void recordRoleChanged(Role from, Role to) {
+        if (from == to) {
+            return;
+        }
+        incrementRole(from, -1);
+        incrementRole(to, 1);
+    }
+
+    /**
+     * Users per role now, and signups and deletions for each of the last {@code days} days, oldest first.
+     *
+     * @param days the window, clamped to [1, {@value #MAX_DAYS}]
+     */
+    @Transactional(readOnly = true)
+    public UserStats getStats(int days) {
+        Map<Role, Long> byRole = new EnumMap<>(Role.class);
+        for (Role role : Role.values()) {
+            byRole.put(role, 0L);
+        }
+        long total = 0;
+        for (UserRepository.RoleCount count : roleCountRepository.sumByRole()) {
+            byRole.put(count.getRole(), count.getCount());
+            total += count.getCount();
+        }
+
+        LocalDate today = LocalDate.now();
+        LocalDate from = today.minusDays(Math.max(1, Math.min(days, MAX_DAYS)) - 1L);
+        Map<LocalDate, UserStats.Day> byDay = new LinkedHashMap<>();
+        for (LocalDate day = from; !day.isAfter(today); day = day.plusDays(1)) {
+            byDay.put(day, new UserStats.Day(day, 0, 0));
+        }
+        for (UserDailyStats stats : dailyStatsRepository.findByDayGreaterThanEqualOrderByDayAsc(from)) {
+            UserStats.Day day = byDay.get(stats.getDay());
+            if (day != null) {
+                day.setSignups(day.getSignups() + stats.getSignups());
+                day.setDeletions(day.getDeletions() + stats.getDeletions());
+            }
+        }
+        return new UserStats(total, byRole, new ArrayList<>(byDay.values()));
+    }
+
+    private void incrementRole(Role role, long delta) {
+        short shard = (short) ThreadLocalRandom.current().nextInt(SHARDS);
+        roleCountRepository.increment(role, shard, delta);
+    }
+
+    private void incrementDay(Role role, long signups, long deletions) {
+        dailyStatsRepository.increment(LocalDate.now(), role, signups, deletions);
+    }
+}
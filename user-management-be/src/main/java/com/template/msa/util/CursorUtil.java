@@ -0,0 +1,82 @@
+package com.template.msa.util;
+
+import com.template.msa.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque cursors handed out by keyset-paginated endpoints.
+ */
+public final class CursorUtil {
+
+    private static final String ID_PREFIX = "id:";
+    private static final String KEY_PREFIX = "key:";
+
+    private CursorUtil() {
+    }
+
+    public static String encodeId(Long id) {
+        return encode(ID_PREFIX + id);
+    }
+
+    /**
+     * Cursor for a listing ordered by {@code sort}: the sort value of the last row, with its id as tie-breaker.
+     */
+    public static String encodeKey(String sort, Long id, String value) {
+        return encode(KEY_PREFIX + sort + ":" + id + ":" + value);
+    }
+
+    /**
+     * @return the id carried by the cursor, or 0 when no cursor was supplied
+     * @throws BadRequestException if the cursor was not produced by {@link #encodeId(Long)}
+     */
+    public static long decodeId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(ID_PREFIX)) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return Long.parseLong(decoded.substring(ID_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            // Not Base64, or the id is not a number
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * @return the position carried by the cursor, or null when no cursor was supplied
+     * @throws BadRequestException if the cursor was not produced by {@link #encodeKey} for the same sort
+     */
+    public static Key decodeKey(String sort, String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String prefix = KEY_PREFIX + sort + ":";
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':', prefix.length());
+            if (!decoded.startsWith(prefix) || separator < 0) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new Key(Long.parseLong(decoded.substring(prefix.length(), separator)),
+                    decoded.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            // Not Base64, or the id is not a number
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * A keyset position: the sort value of the last row returned and its id.
+     */
+    public record Key(long id, String value) {
+    }
+}
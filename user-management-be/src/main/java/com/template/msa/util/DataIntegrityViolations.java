@@ -0,0 +1,61 @@
+package com.template.msa.util;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Tells unique violations on the users table apart from other integrity violations, so the request handler
+ * and the bulk import report a taken username or email the same way.
+ */
+public final class DataIntegrityViolations {
+
+    /**
+     * Picks the column out of unique-violation messages, e.g. PostgreSQL's {@code Key (email)=(...)} /
+     * {@code "users_email_key"} or H2's {@code ON PUBLIC.USERS(EMAIL ...)}.
+     */
+    private static final Pattern UNIQUE_COLUMN = Pattern.compile("(?:\\(|users?_)\"?(username|email)");
+
+    /** SQLState of a unique violation, the same in PostgreSQL and H2. */
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private DataIntegrityViolations() {
+    }
+
+    /**
+     * Whether the violation is a duplicate key, as opposed to e.g. a null, a failed check or a dangling reference.
+     */
+    public static boolean isUniqueViolation(DataIntegrityViolationException ex) {
+        if (ex instanceof DuplicateKeyException) {
+            return true;
+        }
+        for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && UNIQUE_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The user column named by a violation's message, {@code username} or {@code email}, or null if it names
+     * neither. Only meaningful once {@link #isUniqueViolation} has established what kind of violation it is.
+     */
+    public static String conflictingField(DataIntegrityViolationException ex) {
+        String detail = ex.getMostSpecificCause().getMessage();
+        if (detail == null) {
+            return null;
+        }
+        // H2 appends the failing statement, whose column list would match as well
+        int statementStart = detail.indexOf("SQL statement");
+        if (statementStart >= 0) {
+            detail = detail.substring(0, statementStart);
+        }
+        Matcher matcher = UNIQUE_COLUMN.matcher(detail.toLowerCase(Locale.ROOT));
+        return matcher.find() ? matcher.group(1) : null;
+    }
+}
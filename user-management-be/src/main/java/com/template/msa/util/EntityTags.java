@@ -0,0 +1,94 @@
+package com.template.msa.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Builds strong HTTP entity tags from entity versions, the {@code @Version} column, so a conditional GET
+ * can be answered from a version-only query without loading or serializing the entity. The version is
+ * bumped by every write, so unlike a timestamp two revisions can never share a tag.
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    /**
+     * Tag for one revision of an entity: changes whenever its {@code version} does.
+     */
+    public static String of(Long id, long version) {
+        return of(id, version, "");
+    }
+
+    /**
+     * Tag for one representation of an entity revision, e.g. a sparse fieldset named by {@code variant}.
+     */
+    public static String of(Long id, long version, String variant) {
+        return "\"" + version(id, version) + variant + "\"";
+    }
+
+    /**
+     * Tag for a list of entities: changes when any member is added, removed, reordered or updated,
+     * or when {@code extra} (e.g. whether more pages follow, or the total) changes.
+     */
+    public static String ofList(List<String> versions, String extra) {
+        MessageDigest digest = sha256();
+        for (String version : versions) {
+            digest.update(version.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ',');
+        }
+        digest.update(extra.getBytes(StandardCharsets.UTF_8));
+        byte[] hash = digest.digest();
+        return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22) + "\"";
+    }
+
+    /**
+     * The unquoted version of one entity, for building list tags.
+     */
+    public static String version(Long id, long version) {
+        return id + "-" + Long.toString(version, 36);
+    }
+
+    /**
+     * Whether an {@code If-Match} header names the current revision of an entity, in any representation.
+     * If-Match needs the strong comparison, so weak tags never match; {@code *} matches any revision.
+     */
+    public static boolean matches(String ifMatch, Long id, long version) {
+        String current = version(id, version);
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+                continue;
+            }
+            String opaque = tag.substring(1, tag.length() - 1);
+            int variant = opaque.indexOf('+');
+            if ((variant < 0 ? opaque : opaque.substring(0, variant)).equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@code updatedAt} as epoch milliseconds, for Last-Modified.
+     */
+    public static long toEpochMilli(LocalDateTime updatedAt) {
+        return updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Creates the sequence backing {@code users.id} so inserts can be batched.
+ * The start value depends on the existing rows, which plain SQL cannot express portably.
+ * Hibernate's pooled optimizer treats each sequence value as the top of a block of 50 ids,
+ * so the sequence starts one full block above the current maximum id.
+ */
+public class V4__Create_users_id_sequence extends BaseJavaMigration {
+
+    private static final int INCREMENT = 50;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            long maxId;
+            try (ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM users")) {
+                rs.next();
+                maxId = rs.getLong(1);
+            }
+            statement.execute("CREATE SEQUENCE users_seq START WITH " + (maxId + INCREMENT)
+                    + " INCREMENT BY " + INCREMENT);
+        }
+    }
+}
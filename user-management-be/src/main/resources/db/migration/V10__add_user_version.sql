@@ -0,0 +1,3 @@
+-- Optimistic-locking version, incremented by Hibernate on every update of the row;
+-- an UPDATE carrying a stale version matches no row and is rejected.
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,12 @@
+-- Deleting a user only stamps deleted_at; DeletedUserPurger removes the row later, in batches.
+ALTER TABLE users ADD COLUMN deleted_at TIMESTAMP;
+
+-- Usernames and emails of deleted users can be taken again straight away, so uniqueness only
+-- covers live rows. The indexes keep the constraint names so conflicts still name the column.
+ALTER TABLE users DROP CONSTRAINT IF EXISTS users_username_key;
+ALTER TABLE users DROP CONSTRAINT IF EXISTS users_email_key;
+CREATE UNIQUE INDEX users_username_key ON users (username) WHERE deleted_at IS NULL;
+CREATE UNIQUE INDEX users_email_key ON users (email) WHERE deleted_at IS NULL;
+
+-- The purger's scan, over deleted rows only
+CREATE INDEX idx_users_deleted_at ON users (deleted_at) WHERE deleted_at IS NOT NULL;
@@ -0,0 +1,3 @@
+-- Each instance polls for users changed since its last sync to pick up session revocations,
+-- role changes and deletes made on other instances
+CREATE INDEX idx_users_updated_at ON users (updated_at);
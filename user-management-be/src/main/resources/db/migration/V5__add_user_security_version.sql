@@ -0,0 +1,3 @@
+-- Bumped whenever a change must invalidate the user's outstanding access tokens
+-- (role, email or password change); tokens carry the version they were issued with.
+ALTER TABLE users ADD COLUMN security_version INTEGER NOT NULL DEFAULT 0;
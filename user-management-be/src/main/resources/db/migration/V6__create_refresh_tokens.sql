@@ -0,0 +1,17 @@
+-- Refresh tokens are stored as SHA-256 hashes only. A login starts a family; each refresh marks the
+-- presented token replaced and issues a sibling, so presenting a replaced token reveals reuse.
+CREATE TABLE refresh_tokens (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token_hash VARCHAR(64) NOT NULL,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    family_id BIGINT NOT NULL,
+    security_version INTEGER NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    replaced_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_refresh_tokens_token_hash UNIQUE (token_hash)
+);
+
+CREATE INDEX idx_refresh_tokens_family_id ON refresh_tokens(family_id);
+CREATE INDEX idx_refresh_tokens_user_id ON refresh_tokens(user_id);
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens(expires_at);
@@ -0,0 +1,21 @@
+-- User search matches lower(username) / lower(email) with LIKE.
+-- The plain indexes on username and email duplicate the ones behind their UNIQUE constraints,
+-- which already serve exact lookups and ORDER BY, and cannot serve case-insensitive matching.
+DROP INDEX IF EXISTS idx_users_username;
+DROP INDEX IF EXISTS idx_users_email;
+
+-- Prefix search ('abc%'): text_pattern_ops makes the btree usable for LIKE under any collation
+CREATE INDEX idx_users_username_lower ON users (lower(username) text_pattern_ops);
+CREATE INDEX idx_users_email_lower ON users (lower(email) text_pattern_ops);
+
+-- Substring search ('%abc%'): trigram GIN indexes, usable once the pattern has three characters
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_users_username_trgm ON users USING gin (lower(username) gin_trgm_ops);
+CREATE INDEX idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
+
+-- Role filter combined with the default id order
+DROP INDEX IF EXISTS idx_users_role;
+CREATE INDEX idx_users_role_id ON users (role, id);
+
+-- Sorting by creation date, with id as tie-breaker for keyset pagination
+CREATE INDEX idx_users_created_at_id ON users (created_at, id);
@@ -0,0 +1,31 @@
+-- Users per role, kept up to date by the same transactions that create, re-role and delete users.
+-- Each role's count is spread over shards so concurrent writers rarely queue on one row lock;
+-- readers sum the few shard rows. Writers upsert their shard's row; the rows are created here
+-- so the existing users can be counted in shard 0.
+CREATE TABLE user_role_counts (
+    role VARCHAR(20) NOT NULL,
+    shard SMALLINT NOT NULL,
+    user_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (role, shard)
+);
+
+INSERT INTO user_role_counts (role, shard, user_count)
+SELECT r.role, s.shard, 0
+FROM (VALUES ('USER'), ('ADMIN')) AS r(role)
+CROSS JOIN (VALUES (0), (1), (2), (3), (4), (5), (6), (7),
+                   (8), (9), (10), (11), (12), (13), (14), (15)) AS s(shard);
+
+-- Seed shard 0 with the users that exist before incremental counting starts
+UPDATE user_role_counts c
+SET user_count = (SELECT COUNT(*) FROM users u WHERE u.role = c.role)
+WHERE c.shard = 0;
+
+-- Signups and deletions per day and role. Writers upsert the row for the day of the change;
+-- the reconciliation job raises recent signups that fall short of the users table.
+CREATE TABLE user_daily_stats (
+    day DATE NOT NULL,
+    role VARCHAR(20) NOT NULL,
+    signups BIGINT NOT NULL DEFAULT 0,
+    deletions BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (day, role)
+);
@@ -0,0 +1,99 @@
+package com.template.msa.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing against separate in-memory H2 databases standing in for the primary and the replicas.
+ * Each database holds a single row naming itself.
+ */
+class ReadReplicaConfigTest {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    @Test
+    void routing_ShouldSendReadOnlyTransactionsToReplicaAndEverythingElseToPrimary() {
+        // Arrange
+        DataSource routing = ReadReplicaConfig.routing(database("primary"),
+                new RoundRobinDataSource(List.of(database("replica"))));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(routing);
+        TransactionTemplate readWrite = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        readOnly.setReadOnly(true);
+
+        // Act
+        String readOnlyNode = readOnly.execute(status -> node(jdbcTemplate));
+        String readWriteNode = readWrite.execute(status -> node(jdbcTemplate));
+
+        // Assert
+        assertThat(readOnlyNode).isEqualTo("replica");
+        assertThat(readWriteNode).isEqualTo("primary");
+        assertThat(node(jdbcTemplate)).isEqualTo("primary");
+    }
+
+    @Test
+    void routing_ShouldSpreadReadOnlyTransactionsOverReplicas() {
+        // Arrange
+        DataSource routing = ReadReplicaConfig.routing(database("primary"),
+                new RoundRobinDataSource(List.of(database("replica-1"), database("replica-2"))));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(routing);
+        TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        readOnly.setReadOnly(true);
+
+        // Act
+        List<String> nodes = List.of(
+                readOnly.execute(status -> node(jdbcTemplate)),
+                readOnly.execute(status -> node(jdbcTemplate)),
+                readOnly.execute(status -> node(jdbcTemplate)));
+
+        // Assert
+        assertThat(nodes).containsExactly("replica-1", "replica-2", "replica-1");
+    }
+
+    @Test
+    void routing_WhenReadOnlyTransactionIsNeverUsed_ShouldNotTakeAConnection() {
+        // Arrange
+        AtomicInteger replicaConnections = new AtomicInteger();
+        DataSource replica = database("replica");
+        DataSource countingReplica = new RoundRobinDataSource(List.of(replica)) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                replicaConnections.incrementAndGet();
+                return super.getConnection();
+            }
+        };
+        DataSource routing = ReadReplicaConfig.routing(database("primary"), countingReplica);
+        TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        readOnly.setReadOnly(true);
+
+        // Act
+        readOnly.executeWithoutResult(status -> { });
+
+        // Assert
+        assertThat(replicaConnections).hasValue(0);
+    }
+
+    private static String node(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing-" + DATABASES.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
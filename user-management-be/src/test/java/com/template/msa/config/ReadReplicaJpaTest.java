@@ -0,0 +1,130 @@
+package com.template.msa.config;
+
+import com.template.msa.UserManagementApplication;
+import com.template.msa.model.Role;
+import com.template.msa.model.User;
+import com.template.msa.repository.UserRepository;
+import com.template.msa.security.JpaUserDetailsService;
+import jakarta.persistence.EntityManagerFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replica routing through Spring Data JPA, the JpaTransactionManager and Hibernate, against two in-memory
+ * H2 databases. Writes only reach the primary; the replica lags, holding the rows each test copies to it.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:jpa-primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "datasource.replica.urls=" + ReadReplicaJpaTest.REPLICA_URL,
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.region_prefix=read-replica-jpa-test"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = UserManagementApplication.class)
+@Import({ReadReplicaConfig.class, JpaUserDetailsService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadReplicaJpaTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:jpa-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JpaUserDetailsService userDetailsService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(REPLICA_URL);
+        dataSource.setUser("postgres");
+        dataSource.setPassword("postgres");
+        replica = new JdbcTemplate(dataSource);
+        replica.execute("CREATE TABLE IF NOT EXISTS users (id BIGINT PRIMARY KEY, username VARCHAR(50) NOT NULL, "
+                + "email VARCHAR(100) NOT NULL, password VARCHAR(100) NOT NULL, role VARCHAR(20) NOT NULL, "
+                + "security_version INT NOT NULL, version BIGINT NOT NULL, created_at TIMESTAMP NOT NULL, "
+                + "updated_at TIMESTAMP NOT NULL, deleted_at TIMESTAMP)");
+        replica.update("DELETE FROM users");
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void loadUserByUsername_RightAfterRegistration_ShouldFindUserOnPrimary() {
+        // Arrange
+        User registered = register("new@example.com", Role.USER);
+
+        // Act
+        User loaded = userDetailsService.loadUserByUsername("new@example.com");
+
+        // Assert
+        assertThat(loaded.getId()).isEqualTo(registered.getId());
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldReadReplicaWithoutCachingWhatItRead() {
+        // Arrange
+        User registered = register("lagging@example.com", Role.ADMIN);
+        replicate(registered, Role.USER);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // Act
+        Role onReplica = readOnly.execute(status -> userRepository.findById(registered.getId()).orElseThrow().getRole());
+
+        // Assert
+        assertThat(onReplica).isEqualTo(Role.USER);
+        assertThat(entityManagerFactory.getCache().contains(User.class, registered.getId())).isFalse();
+        assertThat(userDetailsService.loadUserById(registered.getId()).getRole()).isEqualTo(Role.ADMIN);
+        assertThat(entityManagerFactory.getCache().contains(User.class, registered.getId())).isTrue();
+    }
+
+    /**
+     * Save a user on the primary and start from an empty second-level cache, so the next lookup queries.
+     */
+    private User register(String email, Role role) {
+        User user = new User();
+        user.setUsername(email.substring(0, email.indexOf('@')));
+        user.setEmail(email);
+        user.setPassword("$2a$10$hash");
+        user.setRole(role);
+        User saved = userRepository.save(user);
+        entityManagerFactory.getCache().evictAll();
+        return saved;
+    }
+
+    /**
+     * Copy a user to the replica as it was before its latest change, here a different role.
+     */
+    private void replicate(User user, Role role) {
+        LocalDateTime now = LocalDateTime.now();
+        replica.update("INSERT INTO users (id, username, email, password, role, security_version, version, "
+                        + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, 0, 0, ?, ?)",
+                user.getId(), "replica", user.getEmail(), user.getPassword(), role.name(), now, now);
+    }
+}
@@ -2,20 +2,31 @@ package com.template.msa.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.template.msa.dto.LoginRequest;
+import com.template.msa.dto.RefreshTokenRequest;
+import com.template.msa.dto.RefreshTokenResponse;
+import com.template.msa.exception.InvalidRefreshTokenException;
+import com.template.msa.exception.LoginThrottledException;
 import com.template.msa.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import com.template.msa.security.JwtService;
+import com.template.msa.security.LoginThrottle;
+import com.template.msa.service.RefreshTokenService;
+import com.template.msa.service.TokenRevocationService;
 import com.template.msa.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -45,9 +56,19 @@ class AuthControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private LoginThrottle loginThrottle;
+
+    @MockBean
+    private RefreshTokenService refreshTokenService;
+
+    @MockBean
+    private TokenRevocationService tokenRevocationService;
+
     private User testUser;
     private LoginRequest loginRequest;
     private static final String TEST_TOKEN = "test.jwt.token";
+    private static final String TEST_REFRESH_TOKEN = "test-refresh-token";
 
     @BeforeEach
     void setUp() {
@@ -62,29 +83,92 @@ class AuthControllerTest {
         loginRequest.setPassword("password");
 
         when(jwtService.generateToken(any(User.class))).thenReturn(TEST_TOKEN);
+        when(refreshTokenService.issue(any(User.class))).thenReturn(TEST_REFRESH_TOKEN);
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
     }
 
     @Test
     void register_WithValidUser_ShouldReturnToken() throws Exception {
         // Arrange
-        when(userService.createUser(any(User.class))).thenReturn(testUser);
+        testUser.setUsername("tester");
+        when(userService.create(any(User.class))).thenReturn(testUser);
 
         // Act & Assert
         mockMvc.perform(post("/api/auth/register")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(testUser)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.token").value(TEST_TOKEN));
+                .andExpect(jsonPath("$.token").value(TEST_TOKEN))
+                .andExpect(jsonPath("$.user.username").value("tester"))
+                .andExpect(jsonPath("$.user.email").value("test@example.com"));
 
-        verify(userService, times(1)).createUser(any(User.class));
+        verify(userService, times(1)).create(any(User.class));
+        verify(passwordEncoder, never()).encode(anyString());
         verify(jwtService, times(1)).generateToken(any(User.class));
     }
 
+    @Test
+    void register_WithTakenEmail_ShouldReturnConflictNamingField() throws Exception {
+        // Arrange
+        when(userService.create(any(User.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new SQLException("duplicate key value violates unique constraint \"users_email_key\"", "23505")));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testUser)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.subErrors[0].field").value("email"));
+    }
+
+    @Test
+    void register_WithUniqueViolationOnUnnamedConstraint_ShouldReturnConflict() throws Exception {
+        // Arrange
+        when(userService.create(any(User.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement", new SQLException("duplicate key", "23505")));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testUser)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.subErrors").isEmpty());
+    }
+
+    @Test
+    void register_WithNotNullViolation_ShouldNotReturnConflict() throws Exception {
+        // Arrange
+        when(userService.create(any(User.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new SQLException("null value in column \"password\" of relation \"users\" violates not-null constraint",
+                        "23502")));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testUser)))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    void register_WithCheckViolationNamingEmail_ShouldNotReturnConflict() throws Exception {
+        // Arrange
+        when(userService.create(any(User.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new SQLException("new row for relation \"users\" violates check constraint \"users_email_check\"",
+                        "23514")));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testUser)))
+                .andExpect(status().isInternalServerError());
+    }
+
     @Test
     void login_WithValidCredentials_ShouldReturnToken() throws Exception {
         // Arrange
-        when(userService.findByEmail(anyString())).thenReturn(testUser);
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(new UsernamePasswordAuthenticationToken(testUser, null, testUser.getAuthorities()));
 
@@ -93,7 +177,9 @@ class AuthControllerTest {
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(loginRequest)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.token").value(TEST_TOKEN));
+                .andExpect(jsonPath("$.token").value(TEST_TOKEN))
+                .andExpect(jsonPath("$.refreshToken").value(TEST_REFRESH_TOKEN))
+                .andExpect(jsonPath("$.user.email").value("test@example.com"));
 
         verify(authenticationManager, times(1)).authenticate(any(UsernamePasswordAuthenticationToken.class));
         verify(jwtService, times(1)).generateToken(any(User.class));
@@ -114,4 +200,77 @@ class AuthControllerTest {
         verify(authenticationManager, times(1)).authenticate(any(UsernamePasswordAuthenticationToken.class));
         verify(jwtService, never()).generateToken(any(User.class));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void login_WithoutEmail_ShouldReturnBadRequestWithoutAuthenticating() throws Exception {
+        // Arrange
+        loginRequest.setEmail(" ");
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isBadRequest());
+
+        verify(authenticationManager, never()).authenticate(any());
+    }
+
+    @Test
+    void login_WhenThrottled_ShouldReturnTooManyRequestsWithoutAuthenticating() throws Exception {
+        // Arrange
+        doThrow(new LoginThrottledException(12)).when(loginThrottle).check(anyString(), anyString());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "12"));
+
+        verify(authenticationManager, never()).authenticate(any());
+    }
+
+    @Test
+    void refresh_WithValidToken_ShouldReturnRotatedTokens() throws Exception {
+        // Arrange
+        when(refreshTokenService.rotate("old-refresh-token"))
+                .thenReturn(new RefreshTokenResponse(TEST_TOKEN, "new-refresh-token"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshTokenRequest("old-refresh-token"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.token").value(TEST_TOKEN))
+                .andExpect(jsonPath("$.data.refreshToken").value("new-refresh-token"));
+    }
+
+    @Test
+    void refresh_WithReusedToken_ShouldReturnUnauthorized() throws Exception {
+        // Arrange
+        when(refreshTokenService.rotate(anyString())).thenThrow(new InvalidRefreshTokenException());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshTokenRequest("used-refresh-token"))))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void logout_ShouldRevokeAccessAndRefreshTokens() throws Exception {
+        // Arrange
+        Claims claims = Jwts.claims().setId("jti-1");
+        when(jwtService.extractAllClaims(TEST_TOKEN)).thenReturn(claims);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/auth/logout")
+                .header("Authorization", "Bearer " + TEST_TOKEN)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshTokenRequest(TEST_REFRESH_TOKEN))))
+                .andExpect(status().isNoContent());
+
+        verify(tokenRevocationService).revoke(claims);
+        verify(refreshTokenService).revoke(TEST_REFRESH_TOKEN);
+    }
+}
@@ -1,8 +1,21 @@
 package com.template.msa.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.template.msa.dto.CursorPage;
+import com.template.msa.dto.UserField;
+import com.template.msa.dto.UserPatch;
+import com.template.msa.dto.UserResponse;
+import com.template.msa.dto.UserSearchCriteria;
+import com.template.msa.dto.UserStats;
+import com.template.msa.exception.PreconditionFailedException;
+import com.template.msa.model.Role;
 import com.template.msa.model.User;
+import com.template.msa.repository.UserRepository;
+import com.template.msa.service.UserExportService;
+import com.template.msa.service.UserImportService;
 import com.template.msa.service.UserService;
+import com.template.msa.service.UserStatsService;
+import com.template.msa.util.EntityTags;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,10 +24,17 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -31,6 +51,17 @@ class UserControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private UserExportService userExportService;
+
+    @MockBean
+    private UserImportService userImportService;
+
+    @MockBean
+    private UserStatsService userStatsService;
+
+    private static final String PAGE_TAG = "\"page-tag\"";
+
     private User testUser;
 
     @BeforeEach
@@ -43,18 +74,155 @@ class UserControllerTest {
     }
 
     @Test
-    void getAllUsers_ShouldReturnUsersList() throws Exception {
+    void getAllUsers_ShouldReturnUsersPage() throws Exception {
         // Arrange
-        when(userService.getAllUsers()).thenReturn(Arrays.asList(testUser));
+        when(userService.getPageTag(null, UserService.DEFAULT_PAGE_SIZE, false, UserField.ALL)).thenReturn(PAGE_TAG);
+        when(userService.findPage(null, UserService.DEFAULT_PAGE_SIZE, false, UserField.ALL))
+                .thenReturn(new CursorPage<>(Arrays.asList(UserResponse.from(testUser)), "next-cursor", null));
 
         // Act & Assert
         mockMvc.perform(get("/api/users"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1))
-                .andExpect(jsonPath("$[0].name").value("Test User"))
-                .andExpect(jsonPath("$[0].email").value("test@example.com"));
+                .andExpect(header().string("ETag", PAGE_TAG))
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.items[0].email").value("test@example.com"))
+                .andExpect(jsonPath("$.items[0].password").doesNotExist())
+                .andExpect(jsonPath("$.items[0].authorities").doesNotExist())
+                .andExpect(jsonPath("$.next").value("next-cursor"));
+
+        verify(userService, times(1)).findPage(null, UserService.DEFAULT_PAGE_SIZE, false, UserField.ALL);
+    }
+
+    @Test
+    void getAllUsers_WithCursorAndCount_ShouldPassThroughParameters() throws Exception {
+        // Arrange
+        when(userService.getPageTag("abc", 10, true, UserField.ALL)).thenReturn(PAGE_TAG);
+        when(userService.findPage("abc", 10, true, UserField.ALL))
+                .thenReturn(new CursorPage<>(Arrays.asList(UserResponse.from(testUser)), null, 1L));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users").param("cursor", "abc").param("limit", "10").param("count", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.next").doesNotExist())
+                .andExpect(jsonPath("$.total").value(1));
+
+        verify(userService, times(1)).findPage("abc", 10, true, UserField.ALL);
+    }
+
+    @Test
+    void searchUsers_ShouldPassCriteriaToService() throws Exception {
+        // Arrange
+        UserSearchCriteria criteria = new UserSearchCriteria("test", UserSearchCriteria.Match.PREFIX, Role.ADMIN,
+                UserSearchCriteria.SortField.CREATED_AT, true);
+        when(userService.search(criteria, "abc", 20, true, UserField.ALL))
+                .thenReturn(new CursorPage<>(Arrays.asList(UserResponse.from(testUser)), null, 1L));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/search")
+                        .param("q", "Test")
+                        .param("match", "prefix")
+                        .param("role", "ADMIN")
+                        .param("sort", "createdAt,desc")
+                        .param("cursor", "abc")
+                        .param("limit", "20")
+                        .param("count", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.total").value(1));
+    }
+
+    @Test
+    void searchUsers_WithUnknownSortField_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/users/search").param("sort", "password"))
+                .andExpect(status().isBadRequest());
+
+        verify(userService, never()).search(any(), any(), anyInt(), anyBoolean(), any());
+    }
+
+    @Test
+    void getStats_ShouldReturnCountsAndDays() throws Exception {
+        // Arrange
+        UserStats stats = new UserStats(3, Map.of(Role.USER, 2L, Role.ADMIN, 1L),
+                List.of(new UserStats.Day(LocalDate.of(2024, 1, 1), 3, 0)));
+        when(userStatsService.getStats(7)).thenReturn(stats);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/stats").param("days", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.byRole.ADMIN").value(1))
+                .andExpect(jsonPath("$.days[0].signups").value(3));
+    }
+
+    @Test
+    void getAllUsers_WhenPageUnchanged_ShouldReturnNotModifiedWithoutLoadingUsers() throws Exception {
+        // Arrange
+        when(userService.getPageTag(null, UserService.DEFAULT_PAGE_SIZE, false, UserField.ALL)).thenReturn(PAGE_TAG);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users").header("If-None-Match", PAGE_TAG))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(userService, never()).findPage(any(), anyInt(), anyBoolean(), any());
+    }
+
+    @Test
+    void getUserById_WhenUnchanged_ShouldReturnNotModifiedWithoutLoadingUser() throws Exception {
+        // Arrange
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 1, 12, 0, 0, 123_456_000);
+        when(userService.getVersion(1L)).thenReturn(version(1L, 3, updatedAt));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/1").header("If-None-Match", EntityTags.of(1L, 3)))
+                .andExpect(status().isNotModified());
+
+        verify(userService, never()).findResponseById(any(), any());
+    }
+
+    @Test
+    void getUserById_WhenChanged_ShouldReturnUserWithValidators() throws Exception {
+        // Arrange
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 1, 12, 0, 0, 123_456_000);
+        testUser.setUpdatedAt(updatedAt);
+        testUser.setVersion(3);
+        when(userService.getVersion(1L)).thenReturn(version(1L, 3, updatedAt));
+        when(userService.findResponseById(1L, UserField.ALL)).thenReturn(UserResponse.from(testUser));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/1").header("If-None-Match", "\"1-2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", EntityTags.of(1L, 3)))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    void getUserById_WithFields_ShouldReturnOnlyRequestedFields() throws Exception {
+        // Arrange
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        Set<UserField> fields = EnumSet.of(UserField.ID, UserField.EMAIL);
+        when(userService.getVersion(1L)).thenReturn(version(1L, 3, updatedAt));
+        when(userService.findResponseById(1L, fields))
+                .thenReturn(new UserResponse(1L, null, "test@example.com", null, null, updatedAt, 3L));
 
-        verify(userService, times(1)).getAllUsers();
+        // Act & Assert
+        mockMvc.perform(get("/api/users/1").param("fields", "id,email"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", EntityTags.of(1L, 3, "+id.email")))
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.email").value("test@example.com"))
+                .andExpect(jsonPath("$.updatedAt").doesNotExist())
+                .andExpect(jsonPath("$.username").doesNotExist());
+    }
+
+    @Test
+    void getUserById_WithUnknownField_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/users/1").param("fields", "id,password"))
+                .andExpect(status().isBadRequest());
+
+        verify(userService, never()).findResponseById(any(), any());
     }
 
     @Test
@@ -101,6 +269,55 @@ class UserControllerTest {
         verify(userService, times(1)).createUser(any(User.class));
     }
 
+    @Test
+    void patchUser_ShouldPassPatchAndIfMatchAndReturnNewTag() throws Exception {
+        // Arrange
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        testUser.setUsername("renamed");
+        testUser.setUpdatedAt(updatedAt);
+        testUser.setVersion(4);
+        UserPatch changes = new UserPatch();
+        changes.setUsername("renamed");
+        when(userService.patch(1L, changes, "\"1-abc\"")).thenReturn(testUser);
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/users/1")
+                .contentType(UserController.MERGE_PATCH_JSON_VALUE)
+                .header("If-Match", "\"1-abc\"")
+                .content("{\"username\":\"renamed\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", EntityTags.of(1L, 4)))
+                .andExpect(jsonPath("$.username").value("renamed"));
+    }
+
+    @Test
+    void patchUser_WithNullOrUnknownMember_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(patch("/api/users/1")
+                .contentType(UserController.MERGE_PATCH_JSON_VALUE)
+                .content("{\"email\":null}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/users/1")
+                .contentType(UserController.MERGE_PATCH_JSON_VALUE)
+                .content("{\"securityVersion\":0}"))
+                .andExpect(status().isBadRequest());
+
+        verify(userService, never()).patch(any(), any(), any());
+    }
+
+    @Test
+    void patchUser_WhenIfMatchIsStale_ShouldReturnPreconditionFailed() throws Exception {
+        // Arrange
+        when(userService.patch(eq(1L), any(), eq("\"1-old\"")))
+                .thenThrow(new PreconditionFailedException("User 1 has been modified since it was read"));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/users/1")
+                .contentType(UserController.MERGE_PATCH_JSON_VALUE)
+                .header("If-Match", "\"1-old\"")
+                .content("{\"username\":\"renamed\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void deleteUser_ShouldReturnNoContent() throws Exception {
         // Act & Assert
@@ -109,4 +326,12 @@ class UserControllerTest {
 
         verify(userService, times(1)).deleteUser(1L);
     }
-} 
\ No newline at end of file
+
+    private static UserRepository.VersionView version(Long id, long rowVersion, LocalDateTime updatedAt) {
+        UserRepository.VersionView version = mock(UserRepository.VersionView.class);
+        when(version.getId()).thenReturn(id);
+        when(version.getVersion()).thenReturn(rowVersion);
+        when(version.getUpdatedAt()).thenReturn(updatedAt);
+        return version;
+    }
+}
@@ -0,0 +1,125 @@
+package com.template.msa.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.template.msa.util.CursorUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput and latency of the endpoints the React client uses, under open-model load against
+ * the application on in-memory H2. Requests carry the same headers as {@code services/api.ts}:
+ * <ul>
+ *   <li>{@code POST /api/auth/login} by a random user</li>
+ *   <li>{@code GET /api/users/me} by a random user</li>
+ *   <li>{@code GET /api/users/{id}} by an admin opening a random user</li>
+ *   <li>{@code GET /api/users?limit=50}, half first pages and half "load more" pages from a random cursor</li>
+ * </ul>
+ * Run with {@code mvn test -Dtest=ApiLoadTest -Dbenchmark=true}. Tunables: {@code load.users},
+ * {@code load.seconds}, {@code load.warmup-seconds}, {@code load.max-in-flight} and the per-endpoint
+ * arrival rates {@code load.rate.login}, {@code load.rate.me}, {@code load.rate.user}, {@code load.rate.list}
+ * (requests per second). Results are printed and written to {@code target/load-test-report.json}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ApiLoadTest {
+
+    private static final int USERS = Integer.getInteger("load.users", 10_000);
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("load.seconds", 60));
+    private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("load.warmup-seconds", 10));
+    private static final int MAX_IN_FLIGHT = Integer.getInteger("load.max-in-flight", 10_000);
+    private static final int PAGE_SIZE = 50;
+
+    @Test
+    void frontendScenarios_ShouldReportLatencyPerEndpoint() throws Exception {
+        String[] properties = System.getProperty("load.properties", "").isBlank()
+                ? new String[0] : System.getProperty("load.properties").split(",");
+        try (LoadTestApp app = LoadTestApp.start(USERS, properties);
+             HttpClient client = HttpClient.newBuilder()
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .build()) {
+            List<OpenModelLoad.Endpoint> endpoints = endpoints(app);
+            OpenModelLoad load = new OpenModelLoad(client, MAX_IN_FLIGHT);
+
+            load.run(endpoints, WARMUP);
+            List<LatencyRecorder> recorders = load.run(endpoints, DURATION);
+
+            List<LatencyRecorder.Stats> stats = recorders.stream()
+                    .map(recorder -> recorder.stats(DURATION.toSeconds()))
+                    .toList();
+            System.out.printf("%d users, %d s, open model%n", USERS, DURATION.toSeconds());
+            System.out.println(LatencyRecorder.Stats.header());
+            stats.forEach(System.out::println);
+            writeReport(stats);
+
+            assertThat(stats).allSatisfy(s -> assertThat(s.errors()).isLessThanOrEqualTo(s.requests() / 100));
+        }
+    }
+
+    private static List<OpenModelLoad.Endpoint> endpoints(LoadTestApp app) {
+        return List.of(
+                new OpenModelLoad.Endpoint("POST /api/auth/login", rate("login", 20), () -> {
+                    long id = randomUser(app);
+                    String body = "{\"email\":\"" + LoadTestApp.email(id) + "\",\"password\":\""
+                            + LoadTestApp.PASSWORD + "\"}";
+                    return request(app, "/api/auth/login", null)
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build();
+                }),
+                new OpenModelLoad.Endpoint("GET /api/users/me", rate("me", 200),
+                        () -> request(app, "/api/users/me", app.token(randomUser(app))).GET().build()),
+                new OpenModelLoad.Endpoint("GET /api/users/{id}", rate("user", 200),
+                        () -> request(app, "/api/users/" + randomUser(app), app.token(randomAdmin(app))).GET().build()),
+                new OpenModelLoad.Endpoint("GET /api/users", rate("list", 50), () -> {
+                    String path = "/api/users?limit=" + PAGE_SIZE;
+                    if (ThreadLocalRandom.current().nextBoolean()) {
+                        path += "&cursor=" + CursorUtil.encodeId(randomUser(app));
+                    }
+                    return request(app, path, app.token(randomAdmin(app))).GET().build();
+                }));
+    }
+
+    private static HttpRequest.Builder request(LoadTestApp app, String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(app.uri(path))
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .header("X-Requested-With", "XMLHttpRequest");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private static double rate(String endpoint, double defaultRate) {
+        return Double.parseDouble(System.getProperty("load.rate." + endpoint, String.valueOf(defaultRate)));
+    }
+
+    private static long randomUser(LoadTestApp app) {
+        return ThreadLocalRandom.current().nextLong(1, app.users() + 1);
+    }
+
+    private static long randomAdmin(LoadTestApp app) {
+        return ThreadLocalRandom.current().nextLong(0, (app.users() + 9) / 10) * 10 + 1;
+    }
+
+    private static void writeReport(List<LatencyRecorder.Stats> stats) throws IOException {
+        File report = new File("target/load-test-report.json");
+        report.getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report, Map.of(
+                "users", USERS,
+                "durationSeconds", DURATION.toSeconds(),
+                "endpoints", stats));
+    }
+}
@@ -0,0 +1,63 @@
+package com.template.msa.loadtest;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and failures for one endpoint. Latency is measured from the time the request was
+ * scheduled to start, not from when it was sent, so a backed-up client does not hide server stalls.
+ */
+final class LatencyRecorder {
+
+    private final String endpoint;
+    private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+    private final LongAdder errors = new LongAdder();
+
+    LatencyRecorder(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    void record(long latencyNanos, boolean success) {
+        latencies.add(latencyNanos);
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    void recordError() {
+        errors.increment();
+    }
+
+    Stats stats(double seconds) {
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new Stats(endpoint, sorted.length, errors.sum(), sorted.length / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1_000_000.0;
+    }
+
+    /**
+     * Latencies in milliseconds.
+     */
+    record Stats(String endpoint, long requests, long errors, double throughput,
+                 double p50, double p99, double p999, double max) {
+
+        static String header() {
+            return String.format("%-22s %9s %7s %10s %9s %9s %9s %9s",
+                    "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-22s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f",
+                    endpoint, requests, errors, throughput, p50, p99, p999, max);
+        }
+    }
+}
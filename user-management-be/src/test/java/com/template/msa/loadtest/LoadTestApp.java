@@ -0,0 +1,127 @@
+package com.template.msa.loadtest;
+
+import com.template.msa.UserManagementApplication;
+import com.template.msa.model.Role;
+import com.template.msa.model.User;
+import com.template.msa.security.JwtService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.net.URI;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * The application running on a random port against its own in-memory H2 database, seeded with
+ * synthetic users {@code 1..users}. Every tenth user is an admin; all share {@link #PASSWORD}.
+ * Login throttling is off because all load comes from one address.
+ */
+final class LoadTestApp implements AutoCloseable {
+
+    static final String PASSWORD = "LoadTest#2024";
+
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+    private static final int SEED_BATCH = 1000;
+
+    private final ConfigurableApplicationContext context;
+    private final int users;
+    private final String baseUrl;
+    private final ConcurrentHashMap<Long, String> tokens = new ConcurrentHashMap<>();
+
+    private LoadTestApp(ConfigurableApplicationContext context, int users) {
+        this.context = context;
+        this.users = users;
+        this.baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    /**
+     * @param users number of users to seed
+     * @param properties extra {@code key=value} application properties
+     */
+    static LoadTestApp start(int users, String... properties) {
+        String[] defaults = {
+                "server.port=0",
+                "server.servlet.context-path=",
+                "spring.datasource.url=jdbc:h2:mem:load-" + INSTANCES.incrementAndGet()
+                        + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=DAY",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.flyway.enabled=false",
+                // The placeholder in application.properties is too short for HS256
+                "jwt.secret=load-test-secret-that-is-at-least-256-bits-long",
+                "login.throttle.enabled=false",
+                "logging.level.com.template.msa=INFO"
+        };
+        // Passed as arguments, since default properties would lose to application.properties
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(UserManagementApplication.class)
+                .run(Stream.concat(Stream.of(defaults), Stream.of(properties))
+                        .map(property -> "--" + property)
+                        .toArray(String[]::new));
+        seed(context.getBean(JdbcTemplate.class), users);
+        return new LoadTestApp(context, users);
+    }
+
+    int users() {
+        return users;
+    }
+
+    static boolean isAdmin(long id) {
+        return id % 10 == 1;
+    }
+
+    static String email(long id) {
+        return "user" + id + "@example.com";
+    }
+
+    URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    /**
+     * An access token for a seeded user, as returned by a login. Like the client, each user keeps
+     * reusing the same token.
+     */
+    String token(long id) {
+        return tokens.computeIfAbsent(id, this::issueToken);
+    }
+
+    private String issueToken(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email(id));
+        user.setRole(isAdmin(id) ? Role.ADMIN : Role.USER);
+        return context.getBean(JwtService.class).generateToken(user);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, int users) {
+        // One hash for everyone keeps seeding fast; logins still pay the full BCrypt cost
+        String hash = new BCryptPasswordEncoder().encode(PASSWORD);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH);
+        for (long id = 1; id <= users; id++) {
+            batch.add(new Object[]{id, "user" + id, email(id), hash, isAdmin(id) ? "ADMIN" : "USER", now, now});
+            if (batch.size() == SEED_BATCH || id == users) {
+                jdbcTemplate.batchUpdate("INSERT INTO users (id, username, email, password, role, security_version,"
+                        + " version, created_at, updated_at) VALUES (?, ?, ?, ?, ?, 0, 0, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        // Keep ids handed out by the application clear of the seeded range
+        jdbcTemplate.execute("ALTER SEQUENCE users_seq RESTART WITH " + (users + 51));
+    }
+}
@@ -0,0 +1,92 @@
+package com.template.msa.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Open-model load: each endpoint receives requests at a fixed arrival rate regardless of how fast
+ * earlier requests complete, the way independent users hit a service. Every request runs on its
+ * own virtual thread; when {@code maxInFlight} requests are outstanding, new arrivals count as errors.
+ */
+final class OpenModelLoad {
+
+    /**
+     * @param ratePerSecond arrivals per second
+     * @param request builds the next request, e.g. with a random user
+     */
+    record Endpoint(String name, double ratePerSecond, Supplier<HttpRequest> request) {
+    }
+
+    private final HttpClient client;
+    private final Semaphore inFlight;
+
+    OpenModelLoad(HttpClient client, int maxInFlight) {
+        this.client = client;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Drive every endpoint concurrently for {@code duration}.
+     *
+     * @return one recorder per endpoint, in the order given
+     */
+    List<LatencyRecorder> run(List<Endpoint> endpoints, Duration duration) throws InterruptedException {
+        List<LatencyRecorder> recorders = new ArrayList<>();
+        List<Thread> schedulers = new ArrayList<>();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Endpoint endpoint : endpoints) {
+                LatencyRecorder recorder = new LatencyRecorder(endpoint.name());
+                recorders.add(recorder);
+                if (endpoint.ratePerSecond() > 0) {
+                    schedulers.add(Thread.ofPlatform().name("load-" + endpoint.name())
+                            .start(() -> schedule(endpoint, recorder, requests, start, end)));
+                }
+            }
+            for (Thread scheduler : schedulers) {
+                scheduler.join();
+            }
+        }
+        return recorders;
+    }
+
+    private void schedule(Endpoint endpoint, LatencyRecorder recorder, ExecutorService requests,
+                          long start, long end) {
+        double intervalNanos = 1_000_000_000.0 / endpoint.ratePerSecond();
+        for (long n = 0; ; n++) {
+            long intended = start + (long) (n * intervalNanos);
+            if (intended >= end) {
+                return;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!inFlight.tryAcquire()) {
+                recorder.recordError();
+                continue;
+            }
+            HttpRequest request = endpoint.request().get();
+            requests.submit(() -> {
+                try {
+                    int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    recorder.record(System.nanoTime() - intended, status < 400);
+                } catch (Exception e) {
+                    recorder.record(System.nanoTime() - intended, false);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.template.msa.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the same closed-loop load against {@code GET /api/users/{id}} with requests served on
+ * platform threads and then on virtual threads, and logs throughput and latency for both.
+ * Each run boots the application on its own in-memory H2 database (see {@link LoadTestApp}).
+ * Run with {@code mvn test -Dtest=VirtualThreadComparisonLoadTest -Dbenchmark=true};
+ * {@code -Dload.clients} and {@code -Dload.seconds} change the load.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VirtualThreadComparisonLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadComparisonLoadTest.class);
+    private static final int CLIENTS = Integer.getInteger("load.clients", 1000);
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Duration MEASURE = Duration.ofSeconds(Integer.getInteger("load.seconds", 15));
+    private static final int SAMPLES_PER_CLIENT = 1 << 12;
+
+    @Test
+    void virtualThreads_ShouldServeBlockingLoadWithoutErrors() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        log.info("{}", platform);
+        log.info("{}", virtual);
+        assertThat(virtual.serverErrors()).as("%s", virtual).isZero();
+        assertThat(virtual.clientErrors()).as("%s", virtual).isZero();
+        assertThat(virtual.requests()).as("%s", virtual).isPositive();
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (LoadTestApp app = LoadTestApp.start(1, "spring.threads.virtual.enabled=" + virtualThreads)) {
+            URI uri = app.uri("/api/users/1");
+            String token = app.token(1);
+
+            drive(uri, token, WARMUP);
+            Result result = drive(uri, token, MEASURE);
+            return result.named(virtualThreads ? "virtual" : "platform");
+        }
+    }
+
+    private static Result drive(URI uri, String token, Duration duration) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<ClientStats> clientStats = new ArrayList<>();
+        AtomicInteger serverErrors = new AtomicInteger();
+        AtomicInteger clientErrors = new AtomicInteger();
+
+        try (HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                ClientStats stats = new ClientStats();
+                clientStats.add(stats);
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status >= 500) {
+                                serverErrors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            clientErrors.incrementAndGet();
+                        }
+                        stats.record(System.nanoTime() - start);
+                    }
+                    return null;
+                });
+            }
+        }
+
+        long requests = clientStats.stream().mapToLong(ClientStats::completed).sum();
+        long[] all = clientStats.stream()
+                .flatMapToLong(ClientStats::samples)
+                .sorted()
+                .toArray();
+        return new Result("", requests, requests / (double) duration.toSeconds(),
+                percentile(all, 0.50), percentile(all, 0.99), serverErrors.get(), clientErrors.get());
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1_000_000.0;
+    }
+
+    /**
+     * One client's completed requests, all counted, and a uniform sample of their latencies: every request
+     * has the same chance of being kept however long the run, so percentiles cover the whole run.
+     * Only touched by the client's own thread until the run ends.
+     */
+    private static final class ClientStats {
+
+        private final long[] samples = new long[SAMPLES_PER_CLIENT];
+        private long completed;
+
+        void record(long latencyNanos) {
+            completed++;
+            if (completed <= samples.length) {
+                samples[(int) completed - 1] = latencyNanos;
+            } else {
+                long slot = ThreadLocalRandom.current().nextLong(completed);
+                if (slot < samples.length) {
+                    samples[(int) slot] = latencyNanos;
+                }
+            }
+        }
+
+        long completed() {
+            return completed;
+        }
+
+        LongStream samples() {
+            return Arrays.stream(samples, 0, (int) Math.min(completed, samples.length));
+        }
+    }
+
+    private record Result(String mode, long requests, double throughput, double p50Millis, double p99Millis,
+                          int serverErrors, int clientErrors) {
+
+        Result named(String name) {
+            return new Result(name, requests, throughput, p50Millis, p99Millis, serverErrors, clientErrors);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-8s requests=%d throughput=%.0f/s p50=%.2fms p99=%.2fms 5xx=%d failed=%d",
+                    mode, requests, throughput, p50Millis, p99Millis, serverErrors, clientErrors);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.template.msa.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InstrumentedDataSourceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource database = new JdbcDataSource();
+        database.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        meterRegistry = new SimpleMeterRegistry();
+        jdbcTemplate = new JdbcTemplate(new InstrumentedDataSource(database, meterRegistry, Duration.ofSeconds(1)));
+        jdbcTemplate.execute("create table users (id bigint primary key, email varchar(100))");
+        jdbcTemplate.update("insert into users (id, email) values (1, 'a@example.com'), (2, 'b@example.com')");
+    }
+
+    @Test
+    void query_ShouldRecordTimeAndRowsByMethodAndStatementShape() {
+        // Arrange
+        String outer = RepositoryMethodContext.enter("UserRepository.findAll");
+
+        // Act
+        try {
+            jdbcTemplate.queryForList("select id from users where id in (?, ?)", Long.class, 1L, 2L);
+        } finally {
+            RepositoryMethodContext.exit(outer);
+        }
+
+        // Assert
+        Timer timer = meterRegistry.get("jdbc.statements")
+                .tag("method", "UserRepository.findAll").tag("statement", "select users").timer();
+        DistributionSummary rows = meterRegistry.get("jdbc.rows")
+                .tag("method", "UserRepository.findAll").tag("statement", "select users").summary();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(rows.totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void update_ShouldRecordChangedRowsOutsideRepositoryMethods() {
+        // Act
+        jdbcTemplate.update("update users set email = lower(email)");
+
+        // Assert
+        DistributionSummary rows = meterRegistry.get("jdbc.rows")
+                .tag("method", RepositoryMethodContext.NONE).tag("statement", "update users").summary();
+        assertThat(rows.totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void endRequest_ShouldReturnStatementsRunSinceBeginRequest() {
+        // Arrange
+        InstrumentedDataSource.beginRequest();
+
+        // Act
+        jdbcTemplate.queryForObject("select count(*) from users", Long.class);
+        jdbcTemplate.update("delete from users where id = ?", 1L);
+        int statements = InstrumentedDataSource.endRequest();
+
+        // Assert
+        assertThat(statements).isEqualTo(2);
+        assertThat(InstrumentedDataSource.endRequest()).isZero();
+    }
+
+    @Test
+    void shape_ShouldKeepOperationAndFirstTable() {
+        assertThat(InstrumentedDataSource.shape("select u1_0.id from users u1_0 where u1_0.email=?")).isEqualTo("select users");
+        assertThat(InstrumentedDataSource.shape("insert into \"refresh_tokens\" (id) values (?)")).isEqualTo("insert refresh_tokens");
+        assertThat(InstrumentedDataSource.shape("  UPDATE users SET version=? WHERE id=?")).isEqualTo("update users");
+        assertThat(InstrumentedDataSource.shape("select nextval('users_seq')")).isEqualTo("select");
+        assertThat(InstrumentedDataSource.shape(null)).isEqualTo("batch");
+    }
+}
@@ -0,0 +1,127 @@
+package com.template.msa.repository;
+
+import com.template.msa.UserManagementApplication;
+import com.template.msa.model.Role;
+import com.template.msa.model.User;
+import com.template.msa.security.InProcessUserChangeBus;
+import com.template.msa.security.UserChangeBus;
+import com.template.msa.security.UserChangeEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Eviction against the real second-level cache regions: a change event must drop only the changed user,
+ * leaving every other user's entity and email resolution cached.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.region_prefix=user-cache-evictor-test"
+})
+@ContextConfiguration(classes = UserManagementApplication.class)
+@Import({InProcessUserChangeBus.class, UserCacheEvictor.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserCacheEvictorTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserChangeBus userChangeBus;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User deleted;
+    private User other;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAllInBatch();
+        entityManagerFactory.getCache().evictAll();
+        deleted = userRepository.save(user("deleted@example.com"));
+        other = userRepository.save(user("other@example.com"));
+        // Resolve both emails so their ids and entities are cached
+        userRepository.findByEmail(deleted.getEmail()).orElseThrow();
+        userRepository.findByEmail(other.getEmail()).orElseThrow();
+        statistics().clear();
+    }
+
+    @Test
+    void onUserChanged_WhenDeleted_ShouldEvictOnlyThatUser() {
+        // Act
+        userChangeBus.publish(new UserChangeEvent(deleted.getId(), Set.of(deleted.getEmail()), 1, true));
+
+        // Assert
+        assertThat(entityManagerFactory.getCache().contains(User.class, deleted.getId())).isFalse();
+        assertThat(entityManagerFactory.getCache().contains(User.class, other.getId())).isTrue();
+        userRepository.findByEmail(other.getEmail()).orElseThrow();
+        assertThat(statistics().getNaturalIdCacheHitCount()).isEqualTo(1);
+        userRepository.findByEmail(deleted.getEmail());
+        assertThat(statistics().getNaturalIdCacheMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    void onUserChanged_WhenNothingButSecurityVersionChanged_ShouldKeepEmailResolution() {
+        // Act
+        userChangeBus.publish(new UserChangeEvent(deleted.getId(), Set.of(deleted.getEmail()), 1, false));
+
+        // Assert
+        assertThat(entityManagerFactory.getCache().contains(User.class, deleted.getId())).isFalse();
+        userRepository.findByEmail(deleted.getEmail()).orElseThrow();
+        assertThat(statistics().getNaturalIdCacheHitCount()).isEqualTo(1);
+        assertThat(statistics().getNaturalIdCacheMissCount()).isZero();
+    }
+
+    @Test
+    void onUserChanged_ShouldCountTheRemovalsPerRegion() {
+        // Arrange
+        double entityRemovals = removals("user-cache-evictor-test.users");
+        double emailRemovals = removals("user-cache-evictor-test.users-by-email");
+
+        // Act
+        userChangeBus.publish(new UserChangeEvent(deleted.getId(), Set.of(deleted.getEmail()), 1, true));
+
+        // Assert
+        assertThat(removals("user-cache-evictor-test.users")).isEqualTo(entityRemovals + 1);
+        assertThat(removals("user-cache-evictor-test.users-by-email")).isEqualTo(emailRemovals + 1);
+        assertThat(meterRegistry.find("cache.evictions").tag("cache", "user-cache-evictor-test.users").functionCounter())
+                .isNotNull();
+    }
+
+    private double removals(String region) {
+        return meterRegistry.get("cache.removals").tag("cache", region).gauge().value();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static User user(String email) {
+        User user = new User();
+        user.setUsername(email.substring(0, email.indexOf('@')));
+        user.setEmail(email);
+        user.setPassword("$2a$10$hash");
+        user.setRole(Role.USER);
+        return user;
+    }
+}
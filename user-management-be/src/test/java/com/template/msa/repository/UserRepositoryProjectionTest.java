@@ -0,0 +1,114 @@
+package com.template.msa.repository;
+
+import com.template.msa.UserManagementApplication;
+import com.template.msa.dto.UserResponse;
+import com.template.msa.model.Role;
+import com.template.msa.model.User;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The SQL behind the DTO projections, captured from Hibernate: a {@link UserResponse} query must not
+ * read the password hash or any other column the response does not carry.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.template.msa.repository.UserRepositoryProjectionTest$CapturedSql"
+})
+@ContextConfiguration(classes = UserManagementApplication.class)
+class UserRepositoryProjectionTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("projection");
+        user.setEmail("projection@example.com");
+        user.setPassword("$2a$10$hash");
+        user.setRole(Role.USER);
+        userId = entityManager.persistAndFlush(user).getId();
+        entityManager.clear();
+        CapturedSql.STATEMENTS.clear();
+    }
+
+    @Test
+    void findById_WithUserResponse_ShouldSelectOnlyResponseColumns() {
+        // Act
+        UserResponse response = userRepository.findById(userId, UserResponse.class).orElseThrow();
+
+        // Assert
+        assertThat(response.getEmail()).isEqualTo("projection@example.com");
+        assertThat(CapturedSql.selects()).singleElement().satisfies(UserRepositoryProjectionTest::selectsOnlyResponseColumns);
+    }
+
+    @Test
+    void findByIdGreaterThanOrderByIdAsc_WithUserResponse_ShouldSelectOnlyResponseColumns() {
+        // Act
+        List<UserResponse> page = userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(10), UserResponse.class);
+
+        // Assert
+        assertThat(page).extracting(UserResponse::getId).containsExactly(userId);
+        assertThat(CapturedSql.selects()).singleElement().satisfies(UserRepositoryProjectionTest::selectsOnlyResponseColumns);
+    }
+
+    @Test
+    void from_ShouldMatchTheProjectionOfTheSameUser() {
+        // Act
+        UserResponse projected = userRepository.findById(userId, UserResponse.class).orElseThrow();
+        UserResponse mapped = UserResponse.from(userRepository.findById(userId).orElseThrow());
+
+        // Assert
+        assertThat(mapped.getUsername()).isEqualTo("projection").isEqualTo(projected.getUsername());
+        assertThat(mapped.getEmail()).isEqualTo(projected.getEmail());
+    }
+
+    private static void selectsOnlyResponseColumns(String sql) {
+        String selectList = sql.substring(0, sql.indexOf(" from "));
+        assertThat(selectList).contains("email", "created_at", "updated_at")
+                .doesNotContain("password", "security_version", "deleted_at");
+    }
+
+    /**
+     * Records every SQL statement Hibernate prepares, unchanged.
+     */
+    public static class CapturedSql implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        static List<String> selects() {
+            return STATEMENTS.stream()
+                    .map(sql -> sql.toLowerCase(Locale.ROOT))
+                    .filter(sql -> sql.startsWith("select"))
+                    .toList();
+        }
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
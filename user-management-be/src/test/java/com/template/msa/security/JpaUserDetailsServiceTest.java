@@ -0,0 +1,69 @@
+package com.template.msa.security;
+
+import com.template.msa.exception.ResourceNotFoundException;
+import com.template.msa.model.User;
+import com.template.msa.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JpaUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private JpaUserDetailsService userDetailsService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService = new JpaUserDetailsService(userRepository);
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setEmail("test@example.com");
+    }
+
+    @Test
+    void loadUserByUsername_ShouldLoadByEmail() {
+        // Arrange
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+        // Act
+        User user = userDetailsService.loadUserByUsername("test@example.com");
+
+        // Assert
+        assertThat(user.getId()).isEqualTo(1L);
+    }
+
+    @Test
+    void loadUserByUsername_WhenMissing_ShouldThrow() {
+        // Arrange
+        when(userRepository.findByEmail("missing@example.com")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("missing@example.com"))
+                .isInstanceOf(UsernameNotFoundException.class);
+    }
+
+    @Test
+    void loadUserById_WhenMissing_ShouldThrow() {
+        // Arrange
+        when(userRepository.findById(2L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> userDetailsService.loadUserById(2L))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+}
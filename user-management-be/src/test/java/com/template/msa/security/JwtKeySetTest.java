@@ -0,0 +1,145 @@
+package com.template.msa.security;
+
+import com.template.msa.model.User;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtKeySetTest {
+
+    private static KeyPair rsaKeys;
+    private static KeyPair ecKeys;
+
+    private User testUser;
+
+    @BeforeAll
+    static void generateKeys() throws Exception {
+        KeyPairGenerator rsa = KeyPairGenerator.getInstance("RSA");
+        rsa.initialize(2048);
+        rsaKeys = rsa.generateKeyPair();
+        KeyPairGenerator ec = KeyPairGenerator.getInstance("EC");
+        ec.initialize(new ECGenParameterSpec("secp256r1"));
+        ecKeys = ec.generateKeyPair();
+    }
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setEmail("test@example.com");
+    }
+
+    @Test
+    void generateToken_WithRsaKey_ShouldSignRs256WithKid() {
+        // Arrange
+        JwtService jwtService = new JwtService(JwtKeySet.of("rsa-1", List.of(rsa("rsa-1", true))), 60_000, 100);
+
+        // Act
+        String token = jwtService.generateToken(testUser);
+
+        // Assert
+        var jws = Jwts.parserBuilder().setSigningKey(rsaKeys.getPublic()).build().parseClaimsJws(token);
+        assertThat(jws.getHeader().getKeyId()).isEqualTo("rsa-1");
+        assertThat(jws.getHeader().getAlgorithm()).isEqualTo("RS256");
+        assertThat(jwtService.extractUsername(token)).isEqualTo("test@example.com");
+    }
+
+    @Test
+    void extractAllClaims_AfterRotation_ShouldAcceptTokensFromRetiredKey() {
+        // Arrange
+        JwtService before = new JwtService(JwtKeySet.of("rsa-1", List.of(rsa("rsa-1", true))), 60_000, 100);
+        String oldToken = before.generateToken(testUser);
+        JwtService after = new JwtService(
+                JwtKeySet.of("ec-2", List.of(ec("ec-2", true), rsa("rsa-1", false))), 60_000, 100);
+
+        // Act
+        String newToken = after.generateToken(testUser);
+
+        // Assert
+        assertThat(after.extractUsername(oldToken)).isEqualTo("test@example.com");
+        assertThat(after.extractUsername(newToken)).isEqualTo("test@example.com");
+        assertThatThrownBy(() -> before.extractAllClaims(newToken)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void extractAllClaims_WithHmacTokenWhenKeysConfigured_ShouldReject() {
+        // Arrange
+        String hmacToken = new JwtService("404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970", 60_000, 0)
+                .generateToken(testUser);
+        JwtService jwtService = new JwtService(JwtKeySet.of("rsa-1", List.of(rsa("rsa-1", true))), 60_000, 100);
+
+        // Act & Assert
+        assertThatThrownBy(() -> jwtService.extractAllClaims(hmacToken)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void getJwks_ShouldPublishPublicKeysOnly() {
+        // Arrange
+        JwtKeySet keySet = JwtKeySet.of("ec-2", List.of(ec("ec-2", true), rsa("rsa-1", false)));
+
+        // Act
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> keys = (List<Map<String, Object>>) keySet.getJwks().get("keys");
+
+        // Assert
+        assertThat(keys).extracting(key -> key.get("kid")).containsExactly("ec-2", "rsa-1");
+        assertThat(keys.get(0)).containsEntry("kty", "EC").containsEntry("crv", "P-256").containsEntry("alg", "ES256");
+        assertThat(Base64.getUrlDecoder().decode((String) keys.get(0).get("x"))).hasSize(32);
+        assertThat(keys.get(1)).containsEntry("kty", "RSA").containsEntry("alg", "RS256").containsEntry("e", "AQAB");
+        assertThat(keys).allSatisfy(key -> assertThat(key).doesNotContainKey("d"));
+    }
+
+    @Test
+    void load_FromPemResources_ShouldParseKeys() {
+        // Arrange
+        JwtSigningProperties properties = new JwtSigningProperties("rsa-1", List.of(new JwtSigningProperties.Key(
+                "rsa-1",
+                pem("PRIVATE KEY", rsaKeys.getPrivate().getEncoded()),
+                pem("PUBLIC KEY", rsaKeys.getPublic().getEncoded()))));
+
+        // Act
+        JwtKeySet keySet = JwtKeySet.load(properties, "unused");
+
+        // Assert
+        assertThat(keySet.getActiveKeyId()).isEqualTo("rsa-1");
+        assertThat(keySet.getActiveAlgorithm()).isEqualTo(SignatureAlgorithm.RS256);
+    }
+
+    @Test
+    void of_WithActiveKeyWithoutPrivateKey_ShouldFail() {
+        // Act & Assert
+        assertThatThrownBy(() -> JwtKeySet.of("rsa-1", List.of(rsa("rsa-1", false))))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static JwtKeySet.SigningKey rsa(String id, boolean withPrivateKey) {
+        return new JwtKeySet.SigningKey(id, SignatureAlgorithm.RS256,
+                withPrivateKey ? rsaKeys.getPrivate() : null, rsaKeys.getPublic());
+    }
+
+    private static JwtKeySet.SigningKey ec(String id, boolean withPrivateKey) {
+        return new JwtKeySet.SigningKey(id, SignatureAlgorithm.ES256,
+                withPrivateKey ? ecKeys.getPrivate() : null, ecKeys.getPublic());
+    }
+
+    private static ByteArrayResource pem(String type, byte[] der) {
+        String pem = "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+        return new ByteArrayResource(pem.getBytes(StandardCharsets.US_ASCII));
+    }
+}
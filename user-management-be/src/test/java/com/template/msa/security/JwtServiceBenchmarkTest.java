@@ -0,0 +1,81 @@
+package com.template.msa.security;
+
+import com.template.msa.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the per-request CPU cost of token verification before and after parse-once caching.
+ * The previous filter path built a new key and parser and parsed the token three times per request.
+ * Run with {@code mvn test -Dtest=JwtServiceBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class JwtServiceBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtServiceBenchmarkTest.class);
+    private static final String SECRET_KEY = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 200_000;
+
+    @Test
+    void cachedVerification_ShouldCostLessCpuThanRepeatedParsing() {
+        JwtService jwtService = new JwtService(SECRET_KEY, 3_600_000, 10_000);
+        User user = new User();
+        user.setEmail("bench@example.com");
+        String token = jwtService.generateToken(user);
+
+        long legacyNanos = cpuNanosPerOp(() -> legacyFilterPath(token, user));
+        long cachedNanos = cpuNanosPerOp(() -> {
+            Claims claims = jwtService.extractAllClaims(token);
+            return jwtService.isTokenValid(claims, user);
+        });
+
+        log.info("JWT verification CPU per request: legacy={} ns, cached={} ns ({}x)",
+                legacyNanos, cachedNanos, String.format("%.1f", (double) legacyNanos / cachedNanos));
+        assertThat(cachedNanos)
+                .as("CPU per request with cached verification (legacy: %d ns)", legacyNanos)
+                .isLessThan(legacyNanos);
+    }
+
+    private static boolean legacyFilterPath(String token, User user) {
+        String username = parse(token).getSubject();
+        boolean matches = parse(token).getSubject().equals(user.getUsername());
+        return username != null && matches && !parse(token).getExpiration().before(new Date());
+    }
+
+    private static Claims parse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private static long cpuNanosPerOp(BooleanSupplier op) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        boolean sink = false;
+        for (int i = 0; i < WARMUP; i++) {
+            sink ^= op.getAsBoolean();
+        }
+        long start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink ^= op.getAsBoolean();
+        }
+        long elapsed = threads.getCurrentThreadCpuTime() - start;
+        assertThat(sink).isIn(true, false);
+        return elapsed / ITERATIONS;
+    }
+}
@@ -1,25 +1,22 @@
 package com.template.msa.security;
 
+import com.template.msa.model.Role;
 import com.template.msa.model.User;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
+import io.jsonwebtoken.JwtException;
 
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
-@ExtendWith(MockitoExtension.class)
 class JwtServiceTest {
 
-    @InjectMocks
     private JwtService jwtService;
 
     private User testUser;
@@ -28,8 +25,7 @@ class JwtServiceTest {
 
     @BeforeEach
     void setUp() {
-        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET_KEY);
-        ReflectionTestUtils.setField(jwtService, "jwtExpiration", EXPIRATION);
+        jwtService = new JwtService(SECRET_KEY, EXPIRATION, 100);
 
         testUser = new User();
         testUser.setEmail("test@example.com");
@@ -108,4 +104,71 @@ class JwtServiceTest {
         // Assert
         assertThat(isValid).isFalse();
     }
-} 
\ No newline at end of file
+
+    @Test
+    void extractAllClaims_ShouldServeRepeatedTokenFromCache() {
+        // Arrange
+        String token = jwtService.generateToken(testUser);
+
+        // Act
+        Claims first = jwtService.extractAllClaims(token);
+        Claims second = jwtService.extractAllClaims(token);
+
+        // Assert
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void extractAllClaims_ShouldReturnReadOnlyClaims() {
+        // Arrange
+        Claims claims = jwtService.extractAllClaims(jwtService.generateToken(testUser));
+
+        // Act & Assert
+        assertThatThrownBy(() -> claims.setSubject("someone-else@example.com"))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> claims.put(JwtService.CLAIM_ROLE, "ADMIN"))
+                .isInstanceOf(UnsupportedOperationException.class);
+        claims.getExpiration().setTime(0);
+        assertThat(claims.getExpiration()).isAfter(new Date());
+    }
+
+    @Test
+    void extractAllClaims_WithTamperedToken_ShouldThrow() {
+        // Arrange
+        String token = jwtService.generateToken(testUser);
+        // Change the first signature character: the last one partly encodes padding bits, so altering it
+        // can leave the decoded signature unchanged
+        int signature = token.lastIndexOf('.') + 1;
+        String tampered = token.substring(0, signature) + (token.charAt(signature) == 'A' ? 'B' : 'A')
+                + token.substring(signature + 1);
+
+        // Act & Assert
+        assertThatThrownBy(() -> jwtService.extractAllClaims(tampered)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void extractAllClaims_WithExpiredToken_ShouldThrow() {
+        // Arrange
+        JwtService shortLived = new JwtService(SECRET_KEY, -1000, 100);
+        String token = shortLived.generateToken(testUser);
+
+        // Act & Assert
+        assertThatThrownBy(() -> shortLived.extractAllClaims(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void generateToken_ForPersistedUser_ShouldCarryIdRoleAndSecurityVersion() {
+        // Arrange
+        testUser.setId(42L);
+        testUser.setRole(Role.ADMIN);
+        testUser.setSecurityVersion(3);
+
+        // Act
+        Claims claims = jwtService.extractAllClaims(jwtService.generateToken(testUser));
+
+        // Assert
+        assertThat(claims.get(JwtService.CLAIM_USER_ID, Long.class)).isEqualTo(42L);
+        assertThat(claims.get(JwtService.CLAIM_ROLE)).isEqualTo("ADMIN");
+        assertThat(claims.get(JwtService.CLAIM_SECURITY_VERSION)).isEqualTo(3);
+    }
+}
@@ -0,0 +1,107 @@
+package com.template.msa.security;
+
+import com.template.msa.exception.LoginThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginThrottleTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong now;
+    private LoginThrottle loginThrottle;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        now = new AtomicLong(1_700_000_000_000L);
+        loginThrottle = new LoginThrottle(meterRegistry, true,
+                new TokenBuckets(1000, 5, 60),
+                new TokenBuckets(1000, 2, 6),
+                now::get);
+    }
+
+    @Test
+    void check_WithinAccountLimit_ShouldPass() {
+        // Act
+        loginThrottle.check("test@example.com", "10.0.0.1");
+        loginThrottle.check("TEST@example.com", "10.0.0.1");
+
+        // Assert
+        assertThat(meterRegistry.counter("auth.login.throttled", "scope", "account").count()).isZero();
+    }
+
+    @Test
+    void check_OverAccountLimit_ShouldRejectWithRetryAfter() {
+        // Arrange
+        loginThrottle.check("test@example.com", "10.0.0.1");
+        loginThrottle.check("test@example.com", "10.0.0.2");
+
+        // Act & Assert
+        assertThatThrownBy(() -> loginThrottle.check("Test@Example.com", "10.0.0.3"))
+                .isInstanceOf(LoginThrottledException.class)
+                .satisfies(ex -> assertThat(((LoginThrottledException) ex).getRetryAfterSeconds()).isEqualTo(10));
+        assertThat(meterRegistry.counter("auth.login.throttled", "scope", "account").count()).isEqualTo(1);
+    }
+
+    @Test
+    void check_OverIpLimit_ShouldRejectAcrossAccounts() {
+        // Arrange
+        for (int i = 0; i < 5; i++) {
+            loginThrottle.check("user" + i + "@example.com", "10.0.0.1");
+        }
+
+        // Act & Assert
+        assertThatThrownBy(() -> loginThrottle.check("other@example.com", "10.0.0.1"))
+                .isInstanceOf(LoginThrottledException.class);
+        assertThat(meterRegistry.counter("auth.login.throttled", "scope", "ip").count()).isEqualTo(1);
+    }
+
+    @Test
+    void check_OverAccountLimit_ShouldLeaveOtherAccountsAlone() {
+        // Arrange: exhaust account A, and touch many made-up accounts as an attacker would
+        loginThrottle.check("a@example.com", "10.0.0.1");
+        loginThrottle.check("a@example.com", "10.0.0.2");
+        assertThatThrownBy(() -> loginThrottle.check("a@example.com", "10.0.0.3"))
+                .isInstanceOf(LoginThrottledException.class);
+        for (int i = 0; i < 500; i++) {
+            loginThrottle.check("made-up-" + i + "@example.com", "10.1." + (i / 250) + "." + (i % 250));
+        }
+
+        // Act & Assert
+        loginThrottle.check("b@example.com", "10.0.0.4");
+        loginThrottle.check("b@example.com", "10.0.0.4");
+        assertThat(meterRegistry.counter("auth.login.throttled", "scope", "account").count()).isEqualTo(1);
+    }
+
+    @Test
+    void check_AfterRefill_ShouldPassAgain() {
+        // Arrange
+        loginThrottle.check("test@example.com", "10.0.0.1");
+        loginThrottle.check("test@example.com", "10.0.0.1");
+
+        // Act
+        now.addAndGet(10_000);
+        loginThrottle.check("test@example.com", "10.0.0.1");
+
+        // Assert
+        assertThat(meterRegistry.counter("auth.login.throttled", "scope", "account").count()).isZero();
+    }
+
+    @Test
+    void check_WhenDisabled_ShouldNeverReject() {
+        // Arrange
+        LoginThrottle disabled = new LoginThrottle(meterRegistry, false,
+                new TokenBuckets(1000, 1, 1), new TokenBuckets(1000, 1, 1), now::get);
+
+        // Act & Assert
+        for (int i = 0; i < 10; i++) {
+            disabled.check("test@example.com", "10.0.0.1");
+        }
+    }
+}
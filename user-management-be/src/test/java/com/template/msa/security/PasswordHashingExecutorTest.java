@@ -0,0 +1,99 @@
+package com.template.msa.security;
+
+import com.template.msa.exception.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new PasswordHashingExecutor(meterRegistry, 2, 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void execute_ShouldRunTaskOnPoolAndRecordTimer() {
+        // Act
+        String threadName = executor.execute("encode", () -> Thread.currentThread().getName());
+
+        // Assert
+        assertThat(threadName).startsWith("password-hash-");
+        assertThat(meterRegistry.get("password.hash").tag("operation", "encode").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void execute_WhenPoolAndQueueAreFull_ShouldRejectFast() throws Exception {
+        // Arrange: two tasks running, one queued
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<Boolean>> admitted = List.of(
+                executor.submit("matches", () -> await(release)),
+                executor.submit("matches", () -> await(release)),
+                executor.submit("matches", () -> await(release)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> executor.execute("matches", () -> true))
+                .isInstanceOf(PasswordHashingRejectedException.class);
+        assertThat(meterRegistry.get("password.hash.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        for (CompletableFuture<Boolean> task : admitted) {
+            assertThat(task.get(5, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(executor.execute("matches", () -> true)).isTrue();
+    }
+
+    @Test
+    void execute_WhileBulkWorkWaitsForCapacity_ShouldStillRunLogins() throws Exception {
+        // Arrange: the import holds its only bulk slot and its next row is waiting for it
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = executor.submitWhenAvailable("encode", () -> await(release));
+        CompletableFuture<CompletableFuture<Boolean>> waiting = CompletableFuture.supplyAsync(
+                () -> executor.submitWhenAvailable("encode", () -> true));
+
+        // Act
+        boolean login = executor.execute("matches", () -> true);
+
+        // Assert
+        assertThat(login).isTrue();
+        assertThat(waiting).isNotDone();
+        assertThat(meterRegistry.get("password.hash.rejected").counter().count()).isZero();
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(waiting.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void execute_WithUnknownOperation_ShouldFail() {
+        assertThatThrownBy(() -> executor.execute("digest", () -> true))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.template.msa.security;
+
+import com.template.msa.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SecurityVersionRegistryTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private SecurityVersionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SecurityVersionRegistry(userRepository, new InProcessUserChangeBus(),
+                10_000, Duration.ofMinutes(5), nanos::get);
+    }
+
+    @Test
+    void isCurrent_ShouldLoadVersionOnceThenServeFromMemory() {
+        // Arrange
+        when(userRepository.findSecurityVersionById(1L)).thenReturn(Optional.of(2));
+
+        // Act & Assert
+        assertThat(registry.isCurrent(1L, 2)).isTrue();
+        assertThat(registry.isCurrent(1L, 1)).isFalse();
+        verify(userRepository, times(1)).findSecurityVersionById(1L);
+    }
+
+    @Test
+    void onUserChanged_ShouldRejectTokensWithOlderVersion() {
+        // Arrange
+        when(userRepository.findSecurityVersionById(1L)).thenReturn(Optional.of(0));
+        assertThat(registry.isCurrent(1L, 0)).isTrue();
+
+        // Act
+        registry.onUserChanged(new UserChangeEvent(1L, Set.of(), 1, false));
+
+        // Assert
+        assertThat(registry.isCurrent(1L, 0)).isFalse();
+        assertThat(registry.isCurrent(1L, 1)).isTrue();
+    }
+
+    @Test
+    void onUserChanged_WhenDeleted_ShouldRejectEveryToken() {
+        // Act
+        registry.onUserChanged(new UserChangeEvent(1L, Set.of(), 0, true));
+
+        // Assert
+        assertThat(registry.isCurrent(1L, 0)).isFalse();
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void isCurrent_ForUnknownUser_ShouldReject() {
+        // Arrange
+        when(userRepository.findSecurityVersionById(9L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThat(registry.isCurrent(9L, 0)).isFalse();
+    }
+
+    @Test
+    void isCurrent_AfterTtl_ShouldRereadVersionChangedByAnotherInstance() {
+        // Arrange: another instance revoked the sessions without an event reaching this one
+        when(userRepository.findSecurityVersionById(1L)).thenReturn(Optional.of(0), Optional.of(1));
+        assertThat(registry.isCurrent(1L, 0)).isTrue();
+
+        // Act
+        nanos.addAndGet(Duration.ofMinutes(5).plusSeconds(1).toNanos());
+
+        // Assert
+        assertThat(registry.isCurrent(1L, 0)).isFalse();
+        verify(userRepository, times(2)).findSecurityVersionById(1L);
+    }
+
+    @Test
+    void onUserChanged_WhenDeleted_ShouldForgetRevocationAfterTtl() {
+        // Arrange
+        registry.onUserChanged(new UserChangeEvent(1L, Set.of(), 0, true));
+        when(userRepository.findSecurityVersionById(1L)).thenReturn(Optional.empty());
+
+        // Act
+        nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+
+        // Assert: still rejected, now from the database
+        assertThat(registry.isCurrent(1L, 0)).isFalse();
+        verify(userRepository).findSecurityVersionById(1L);
+    }
+
+    @Test
+    void refresh_WithOlderVersionThanCached_ShouldKeepNewer() {
+        // Arrange
+        when(userRepository.findSecurityVersionById(1L)).thenReturn(Optional.of(0));
+        registry.isCurrent(1L, 0);
+        registry.onUserChanged(new UserChangeEvent(1L, Set.of(), 2, false));
+
+        // Act
+        registry.refresh(1L, 1, false);
+
+        // Assert
+        assertThat(registry.isCurrent(1L, 2)).isTrue();
+    }
+}
@@ -0,0 +1,88 @@
+package com.template.msa.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenDenylistTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TokenDenylist tokenDenylist;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tokenDenylist = new TokenDenylist(meterRegistry, 0.01);
+    }
+
+    @Test
+    void isRevoked_AfterAdd_ShouldBeTrueUntilExpiry() {
+        // Arrange
+        tokenDenylist.add("jti-1", NOW + 60_000);
+
+        // Act & Assert
+        assertThat(tokenDenylist.isRevoked("jti-1", NOW)).isTrue();
+        assertThat(tokenDenylist.isRevoked("jti-1", NOW + 60_000)).isFalse();
+        assertThat(tokenDenylist.isRevoked("jti-2", NOW)).isFalse();
+        assertThat(tokenDenylist.isRevoked(null, NOW)).isFalse();
+    }
+
+    @Test
+    void add_BeyondCapacity_ShouldKeepEveryEntryVisible() {
+        // Arrange
+        String[] jtis = new String[5000];
+        for (int i = 0; i < jtis.length; i++) {
+            jtis[i] = UUID.randomUUID().toString();
+            tokenDenylist.add(jtis[i], NOW + 60_000);
+        }
+
+        // Act & Assert
+        for (String jti : jtis) {
+            assertThat(tokenDenylist.isRevoked(jti, NOW)).isTrue();
+        }
+        assertThat(meterRegistry.get("auth.denylist.entries").gauge().value()).isEqualTo(5000);
+    }
+
+    @Test
+    void isRevoked_ForUnrevokedTokens_ShouldStayNearTargetFalsePositiveRate() {
+        // Arrange
+        for (int i = 0; i < 1000; i++) {
+            tokenDenylist.add(UUID.randomUUID().toString(), NOW + 60_000);
+        }
+
+        // Act
+        for (int i = 0; i < 100_000; i++) {
+            assertThat(tokenDenylist.isRevoked(UUID.randomUUID().toString(), NOW)).isFalse();
+        }
+
+        // Assert
+        double observed = meterRegistry.get("auth.denylist.bloom.false-positives").counter().count() / 100_000;
+        assertThat(observed).isLessThan(0.02);
+        assertThat(meterRegistry.get("auth.denylist.bloom.expected-fpp").gauge().value()).isLessThan(0.02);
+        assertThat(meterRegistry.get("auth.denylist.bloom.bytes").gauge().value()).isPositive();
+    }
+
+    @Test
+    void evictExpired_ShouldDropExpiredEntries() {
+        // Arrange
+        Map<String, Long> entries = new HashMap<>();
+        entries.put("expired", NOW - 1);
+        entries.put("live", NOW + 60_000);
+        tokenDenylist.load(entries);
+
+        // Act
+        tokenDenylist.evictExpired(NOW);
+
+        // Assert
+        assertThat(tokenDenylist.size()).isEqualTo(1);
+        assertThat(tokenDenylist.isRevoked("live", NOW)).isTrue();
+    }
+}
@@ -0,0 +1,83 @@
+package com.template.msa.service;
+
+import com.template.msa.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeletedUserPurgerTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void purge_ShouldDeleteInBatchesUntilShortBatchAndReportProgress() {
+        // Arrange
+        DeletedUserPurger purger = purger("00:00", "00:00");
+        LocalDateTime now = LocalDateTime.of(2024, 6, 1, 3, 0);
+        when(userRepository.purgeDeletedBatch(now.minusHours(24), 2)).thenReturn(2, 2, 1);
+        when(userRepository.countDeleted()).thenReturn(7L);
+
+        // Act
+        int purged = purger.purge(now);
+
+        // Assert
+        assertThat(purged).isEqualTo(5);
+        verify(userRepository, times(3)).purgeDeletedBatch(any(), anyInt());
+        assertThat(meterRegistry.get("user.purge.deleted").counter().count()).isEqualTo(5);
+        assertThat(meterRegistry.get("user.purge.pending").gauge().value()).isEqualTo(7);
+    }
+
+    @Test
+    void purge_OutsideWindow_ShouldOnlyReportBacklog() {
+        // Arrange
+        DeletedUserPurger purger = purger("01:00", "05:00");
+        when(userRepository.countDeleted()).thenReturn(3L);
+
+        // Act
+        int purged = purger.purge(LocalDateTime.of(2024, 6, 1, 12, 0));
+
+        // Assert
+        assertThat(purged).isZero();
+        verify(userRepository, never()).purgeDeletedBatch(any(), anyInt());
+        assertThat(meterRegistry.get("user.purge.pending").gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    void inWindow_ShouldHandleWindowsAcrossMidnight() {
+        DeletedUserPurger purger = purger("22:00", "02:00");
+
+        assertThat(purger.inWindow(LocalTime.of(23, 30))).isTrue();
+        assertThat(purger.inWindow(LocalTime.of(1, 59))).isTrue();
+        assertThat(purger.inWindow(LocalTime.of(2, 0))).isFalse();
+        assertThat(purger.inWindow(LocalTime.of(12, 0))).isFalse();
+    }
+
+    private DeletedUserPurger purger(String windowStart, String windowEnd) {
+        return new DeletedUserPurger(userRepository, transactionManager, meterRegistry, 2,
+                Duration.ofHours(24), windowStart, windowEnd);
+    }
+}
@@ -0,0 +1,194 @@
+package com.template.msa.service;
+
+import com.template.msa.dto.RefreshTokenResponse;
+import com.template.msa.exception.InvalidRefreshTokenException;
+import com.template.msa.model.RefreshToken;
+import com.template.msa.model.User;
+import com.template.msa.repository.RefreshTokenRepository;
+import com.template.msa.security.JpaUserDetailsService;
+import com.template.msa.security.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private JpaUserDetailsService userDetailsService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RefreshTokenService refreshTokenService;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, jwtService, userDetailsService,
+                meterRegistry, 604_800_000L, Duration.ofSeconds(10));
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setEmail("test@example.com");
+        testUser.setSecurityVersion(2);
+    }
+
+    @Test
+    void issue_ShouldStoreOnlyTheHash() {
+        // Act
+        String rawToken = refreshTokenService.issue(testUser);
+
+        // Assert
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertThat(saved.getValue().getTokenHash()).isEqualTo(RefreshTokenService.hash(rawToken)).isNotEqualTo(rawToken);
+        assertThat(saved.getValue().getUserId()).isEqualTo(1L);
+        assertThat(saved.getValue().getSecurityVersion()).isEqualTo(2);
+        assertThat(saved.getValue().getExpiresAt()).isAfter(LocalDateTime.now().plusDays(6));
+    }
+
+    @Test
+    void rotate_WithUnusedToken_ShouldIssueNewPairInSameFamily() {
+        // Arrange
+        RefreshToken stored = storedToken(null, LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("raw"))).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markReplaced(eq(10L), any())).thenReturn(1);
+        when(userDetailsService.loadUserById(1L)).thenReturn(testUser);
+        when(jwtService.generateToken(testUser)).thenReturn("access");
+
+        // Act
+        RefreshTokenResponse response = refreshTokenService.rotate("raw");
+
+        // Assert
+        assertThat(response.getToken()).isEqualTo("access");
+        assertThat(response.getRefreshToken()).isNotEqualTo("raw");
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertThat(saved.getValue().getFamilyId()).isEqualTo(77L);
+        assertThat(meterRegistry.counter("auth.refresh", "outcome", "rotated").count()).isEqualTo(1);
+    }
+
+    @Test
+    void rotate_WithReplacedToken_ShouldRevokeFamily() {
+        // Arrange
+        RefreshToken stored = storedToken(LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+
+        // Act & Assert
+        assertThatThrownBy(() -> refreshTokenService.rotate("raw")).isInstanceOf(InvalidRefreshTokenException.class);
+        verify(refreshTokenRepository).deleteByFamilyId(77L);
+        verify(refreshTokenRepository, never()).save(any());
+        assertThat(meterRegistry.counter("auth.refresh", "outcome", "reused").count()).isEqualTo(1);
+    }
+
+    @Test
+    void rotate_WhenReplayedWithinGrace_ShouldReturnSameSuccessor() {
+        // Arrange
+        RefreshToken stored = storedToken(null, LocalDateTime.now().plusDays(1));
+        RefreshToken replaced = storedToken(LocalDateTime.now().minusSeconds(1), LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("raw")))
+                .thenReturn(Optional.of(stored))
+                .thenReturn(Optional.of(replaced));
+        when(refreshTokenRepository.markReplaced(eq(10L), any())).thenReturn(1);
+        when(userDetailsService.loadUserById(1L)).thenReturn(testUser);
+        when(jwtService.generateToken(testUser)).thenReturn("access");
+
+        // Act
+        RefreshTokenResponse first = refreshTokenService.rotate("raw");
+        RefreshTokenResponse replay = refreshTokenService.rotate("raw");
+
+        // Assert
+        assertThat(replay).isSameAs(first);
+        verify(refreshTokenRepository, times(1)).save(any());
+        verify(refreshTokenRepository, never()).deleteByFamilyId(anyLong());
+        assertThat(meterRegistry.counter("auth.refresh", "outcome", "grace").count()).isEqualTo(1);
+    }
+
+    @Test
+    void rotate_WhenConcurrentRefreshClaimedTokenFirstElsewhere_ShouldIssueAnotherTokenInSameFamily() {
+        // Arrange
+        RefreshToken stored = storedToken(null, LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markReplaced(eq(10L), any())).thenReturn(0);
+        when(userDetailsService.loadUserById(1L)).thenReturn(testUser);
+        when(jwtService.generateToken(testUser)).thenReturn("access");
+
+        // Act
+        RefreshTokenResponse response = refreshTokenService.rotate("raw");
+
+        // Assert
+        assertThat(response.getToken()).isEqualTo("access");
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertThat(saved.getValue().getFamilyId()).isEqualTo(77L);
+        verify(refreshTokenRepository, never()).deleteByFamilyId(anyLong());
+    }
+
+    @Test
+    void rotate_WithExpiredToken_ShouldReject() {
+        // Arrange
+        RefreshToken stored = storedToken(null, LocalDateTime.now().minusSeconds(1));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markReplaced(eq(10L), any())).thenReturn(1);
+
+        // Act & Assert
+        assertThatThrownBy(() -> refreshTokenService.rotate("raw")).isInstanceOf(InvalidRefreshTokenException.class);
+        verify(jwtService, never()).generateToken(any(User.class));
+    }
+
+    @Test
+    void rotate_AfterPasswordChange_ShouldRevokeFamily() {
+        // Arrange
+        RefreshToken stored = storedToken(null, LocalDateTime.now().plusDays(1));
+        stored.setSecurityVersion(1);
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markReplaced(eq(10L), any())).thenReturn(1);
+        when(userDetailsService.loadUserById(1L)).thenReturn(testUser);
+
+        // Act & Assert
+        assertThatThrownBy(() -> refreshTokenService.rotate("raw")).isInstanceOf(InvalidRefreshTokenException.class);
+        verify(refreshTokenRepository).deleteByFamilyId(77L);
+    }
+
+    @Test
+    void rotate_WithUnknownToken_ShouldReject() {
+        // Arrange
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> refreshTokenService.rotate("raw")).isInstanceOf(InvalidRefreshTokenException.class);
+        verify(refreshTokenRepository, never()).deleteByFamilyId(anyLong());
+    }
+
+    private RefreshToken storedToken(LocalDateTime replacedAt, LocalDateTime expiresAt) {
+        RefreshToken token = new RefreshToken();
+        token.setId(10L);
+        token.setUserId(1L);
+        token.setFamilyId(77L);
+        token.setSecurityVersion(2);
+        token.setReplacedAt(replacedAt);
+        token.setExpiresAt(expiresAt);
+        return token;
+    }
+}
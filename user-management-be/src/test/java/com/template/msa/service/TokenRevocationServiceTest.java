@@ -0,0 +1,98 @@
+package com.template.msa.service;
+
+import com.template.msa.repository.RevokedTokenRepository;
+import com.template.msa.repository.UserRepository;
+import com.template.msa.security.InProcessUserChangeBus;
+import com.template.msa.security.SecurityVersionRegistry;
+import com.template.msa.security.TokenDenylist;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * This service stands in for a second instance: the sessions are revoked elsewhere, and only the
+ * database tells it so.
+ */
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private TokenDenylist tokenDenylist;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SecurityVersionRegistry securityVersionRegistry;
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        securityVersionRegistry = new SecurityVersionRegistry(userRepository, new InProcessUserChangeBus(),
+                10_000, Duration.ofMinutes(5));
+        tokenRevocationService = new TokenRevocationService(revokedTokenRepository, tokenDenylist,
+                userRepository, securityVersionRegistry);
+        tokenRevocationService.loadDenylist();
+    }
+
+    @Test
+    void syncFromDatabase_AfterSessionsRevokedOnAnotherInstance_ShouldRejectOldTokens() {
+        // Arrange: this instance has already accepted a token of version 0
+        when(userRepository.findSecurityVersionById(1L)).thenReturn(Optional.of(0));
+        assertThat(securityVersionRegistry.isCurrent(1L, 0)).isTrue();
+        when(userRepository.findSecurityVersionsChangedSince(any())).thenReturn(List.of(row(1L, 1, false)));
+
+        // Act
+        tokenRevocationService.syncFromDatabase();
+
+        // Assert
+        assertThat(securityVersionRegistry.isCurrent(1L, 0)).isFalse();
+        assertThat(securityVersionRegistry.isCurrent(1L, 1)).isTrue();
+    }
+
+    @Test
+    void syncFromDatabase_AfterUserDeletedOnAnotherInstance_ShouldRejectEveryToken() {
+        // Arrange
+        when(userRepository.findSecurityVersionById(1L)).thenReturn(Optional.of(0));
+        assertThat(securityVersionRegistry.isCurrent(1L, 0)).isTrue();
+        when(userRepository.findSecurityVersionsChangedSince(any())).thenReturn(List.of(row(1L, 1, true)));
+
+        // Act
+        tokenRevocationService.syncFromDatabase();
+
+        // Assert
+        assertThat(securityVersionRegistry.isCurrent(1L, 0)).isFalse();
+        assertThat(securityVersionRegistry.isCurrent(1L, 1)).isFalse();
+    }
+
+    private static UserRepository.SecurityVersionView row(Long id, int version, boolean deleted) {
+        return new UserRepository.SecurityVersionView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getVersion() {
+                return version;
+            }
+
+            @Override
+            public Boolean getDeleted() {
+                return deleted;
+            }
+        };
+    }
+}
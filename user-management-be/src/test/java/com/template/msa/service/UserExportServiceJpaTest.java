@@ -0,0 +1,70 @@
+package com.template.msa.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.template.msa.UserManagementApplication;
+import com.template.msa.model.Role;
+import com.template.msa.model.User;
+import com.template.msa.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The export against Hibernate's real second-level cache: scrolling the whole table must leave the
+ * user region as it found it.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.region_prefix=user-export-jpa-test"
+})
+@ContextConfiguration(classes = UserManagementApplication.class)
+@Import({UserExportService.class, ObjectMapper.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserExportServiceJpaTest {
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void export_ShouldNotPutScrolledUsersInTheSecondLevelCache() throws Exception {
+        // Arrange
+        userRepository.deleteAllInBatch();
+        User saved = userRepository.save(user("exported@example.com"));
+        entityManagerFactory.getCache().evictAll();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        userExportService.export(UserFileFormat.NDJSON, out);
+
+        // Assert
+        assertThat(out.toString(StandardCharsets.UTF_8)).contains("\"email\":\"exported@example.com\"");
+        assertThat(entityManagerFactory.getCache().contains(User.class, saved.getId())).isFalse();
+    }
+
+    private static User user(String email) {
+        User user = new User();
+        user.setUsername(email.substring(0, email.indexOf('@')));
+        user.setEmail(email);
+        user.setPassword("$2a$10$hash");
+        user.setRole(Role.USER);
+        return user;
+    }
+}
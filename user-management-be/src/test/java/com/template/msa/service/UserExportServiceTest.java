@@ -0,0 +1,90 @@
+package com.template.msa.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.template.msa.model.Role;
+import com.template.msa.model.User;
+import com.template.msa.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserExportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private UserExportService userExportService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        userExportService = new UserExportService(userRepository, entityManager, new ObjectMapper());
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("test,user");
+        testUser.setEmail("test@example.com");
+        testUser.setPassword("secret-hash");
+        testUser.setRole(Role.USER);
+        testUser.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        testUser.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+    }
+
+    @Test
+    void export_AsCsv_ShouldWriteHeaderAndQuotedRows() throws Exception {
+        // Arrange
+        when(userRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(testUser));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        userExportService.export(UserFileFormat.CSV, out);
+
+        // Assert
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,username,email,role,createdAt,updatedAt\n"
+                        + "1,\"test,user\",test@example.com,USER,2024-01-01T00:00,2024-01-01T00:00\n");
+        verify(entityManager).detach(testUser);
+    }
+
+    @Test
+    void export_AsNdjson_ShouldWriteOneObjectPerLineWithoutPassword() throws Exception {
+        // Arrange
+        User second = new User();
+        second.setId(2L);
+        second.setUsername("second");
+        second.setEmail("second@example.com");
+        second.setRole(Role.ADMIN);
+        when(userRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(testUser, second));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        userExportService.export(UserFileFormat.NDJSON, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{\"id\":1,").doesNotContain("secret-hash");
+        assertThat(lines[1]).contains("\"username\":\"second\"", "\"role\":\"ADMIN\"");
+    }
+
+    @Test
+    void csvField_ShouldEscapeFormulaPrefixes() {
+        assertThat(UserExportService.csvField("=SUM(A1)")).isEqualTo("\"'=SUM(A1)\"");
+    }
+}
@@ -0,0 +1,175 @@
+package com.template.msa.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.template.msa.dto.UserImportReport;
+import com.template.msa.model.Role;
+import com.template.msa.model.User;
+import com.template.msa.repository.UserRepository;
+import com.template.msa.security.OffloadingPasswordEncoder;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserStatsService userStatsService;
+
+    @Mock
+    private OffloadingPasswordEncoder passwordEncoder;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserImportService userImportService;
+
+    @BeforeEach
+    void setUp() {
+        userImportService = new UserImportService(userRepository, userStatsService, passwordEncoder, entityManager,
+                new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator(),
+                transactionManager, 2);
+    }
+
+    @Test
+    void importUsers_FromCsv_ShouldReportDuplicatesAndExistingUsers() throws Exception {
+        // Arrange
+        String csv = "username,email,password,role\n"
+                + "alice,alice@example.com,secret1,ADMIN\n"
+                + "alice,other@example.com,secret2,\n"
+                + "taken,taken@example.com,secret3,USER\n"
+                + "bob,bob@example.com,secret4,\n";
+        UserRepository.IdentityView existing = mock(UserRepository.IdentityView.class);
+        when(existing.getUsername()).thenReturn("taken");
+        when(existing.getEmail()).thenReturn("taken@example.com");
+        when(userRepository.findIdentities(anyCollection(), anyCollection()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(existing));
+        when(passwordEncoder.encodeWhenAvailable(any()))
+                .thenAnswer(inv -> CompletableFuture.completedFuture("hashed-" + inv.getArgument(0)));
+
+        // Act
+        UserImportReport report = userImportService.importUsers(UserFileFormat.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertThat(report.getReceived()).isEqualTo(4);
+        assertThat(report.getCreated()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(UserImportReport.RowError::getRow).containsExactly(2L, 3L);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<User>> saved = ArgumentCaptor.forClass(List.class);
+        verify(userRepository, times(2)).saveAll(saved.capture());
+        assertThat(saved.getAllValues().get(0)).singleElement()
+                .satisfies(user -> assertThat(user.getPassword()).isEqualTo("hashed-secret1"));
+        verify(userRepository, times(2)).findIdentities(anyCollection(), anyCollection());
+        verify(userStatsService).recordCreated(Role.ADMIN, 1L);
+        verify(userStatsService).recordCreated(Role.USER, 1L);
+    }
+
+    @Test
+    void importUsers_FromNdjson_ShouldRejectInvalidRows() throws Exception {
+        // Arrange
+        String ndjson = "{\"username\":\"carol\",\"email\":\"carol@example.com\",\"password\":\"secret1\"}\n"
+                + "{\"username\":\"dave\",\"email\":\"not-an-email\",\"password\":\"secret2\"}\n";
+        when(userRepository.findIdentities(anyCollection(), anyCollection())).thenReturn(List.of());
+        when(passwordEncoder.encodeWhenAvailable(any())).thenReturn(CompletableFuture.completedFuture("hashed"));
+
+        // Act
+        UserImportReport report = userImportService.importUsers(UserFileFormat.NDJSON,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertThat(report.getCreated()).isEqualTo(1);
+        assertThat(report.getErrors()).singleElement()
+                .satisfies(error -> assertThat(error.getField()).isEqualTo("email"));
+    }
+
+    @Test
+    void importUsers_WhenBatchInsertFails_ShouldReportEachRowByItsViolation() throws Exception {
+        // Arrange
+        String ndjson = "{\"username\":\"erin\",\"email\":\"erin@example.com\",\"password\":\"secret1\"}\n"
+                + "{\"username\":\"frank\",\"email\":\"frank@example.com\",\"password\":\"secret2\"}\n";
+        when(userRepository.findIdentities(anyCollection(), anyCollection())).thenReturn(List.of());
+        when(passwordEncoder.encodeWhenAvailable(any())).thenReturn(CompletableFuture.completedFuture("hashed"));
+        when(userRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("batch failed"));
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new SQLException("duplicate key value violates unique constraint \"users_email_key\"",
+                                "23505")))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new SQLException("value too long for type character varying(20)", "22001")));
+
+        // Act
+        UserImportReport report = userImportService.importUsers(UserFileFormat.NDJSON,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertThat(report.getCreated()).isZero();
+        assertThat(report.getErrors()).extracting(UserImportReport.RowError::getRow,
+                        UserImportReport.RowError::getField, UserImportReport.RowError::getMessage)
+                .containsExactly(tuple(1L, "email", "Email already exists"),
+                        tuple(2L, null, "Violates a database constraint"));
+        verify(userStatsService, never()).recordCreated(any(), anyLong());
+    }
+
+    @Test
+    void importUsers_WithUnparsableRecord_ShouldReportTheRowsBeforeIt() throws Exception {
+        // Arrange
+        String ndjson = "{\"username\":\"gina\",\"email\":\"gina@example.com\",\"password\":\"secret1\"}\n"
+                + "{\"username\":\"hank\",\"email\":\"hank@example.com\",\"password\":\"secret2\"}\n"
+                + "{\"username\":\"iris\",\"email\":\"iris@example.com\",\"password\":\"secret3\"}\n"
+                + "{\"username\":\"jack\",,}\n"
+                + "{\"username\":\"kate\",\"email\":\"kate@example.com\",\"password\":\"secret5\"}\n";
+        when(userRepository.findIdentities(anyCollection(), anyCollection())).thenReturn(List.of());
+        when(passwordEncoder.encodeWhenAvailable(any())).thenReturn(CompletableFuture.completedFuture("hashed"));
+
+        // Act
+        UserImportReport report = userImportService.importUsers(UserFileFormat.NDJSON,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertThat(report.getReceived()).isEqualTo(4);
+        assertThat(report.getCreated()).isEqualTo(3);
+        assertThat(report.getStoppedAtRow()).isEqualTo(4L);
+        assertThat(report.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRow()).isEqualTo(4);
+            assertThat(error.getMessage()).startsWith("Unreadable record");
+        });
+        verify(userRepository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    void parseCsvLine_ShouldHandleQuotedFields() {
+        assertThat(UserImportService.parseCsvLine("a,\"b,c\",\"d\"\"e\""))
+                .containsExactly("a", "b,c", "d\"e");
+    }
+}
@@ -1,20 +1,47 @@
 package com.template.msa.service;
 
+import com.template.msa.dto.CursorPage;
+import com.template.msa.dto.UserField;
+import com.template.msa.dto.UserPatch;
+import com.template.msa.dto.UserResponse;
+import com.template.msa.dto.UserSearchCriteria;
+import com.template.msa.exception.BadRequestException;
+import com.template.msa.exception.PreconditionFailedException;
+import com.template.msa.exception.ResourceNotFoundException;
+import com.template.msa.model.Role;
 import com.template.msa.model.User;
 import com.template.msa.repository.UserRepository;
+import com.template.msa.security.AuthenticatedUser;
+import com.template.msa.security.JpaUserDetailsService;
+import com.template.msa.security.UserChangeBus;
+import com.template.msa.security.UserChangeEvent;
+import com.template.msa.util.CursorUtil;
+import com.template.msa.util.EntityTags;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,6 +50,18 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private UserChangeBus userChangeBus;
+
+    @Mock
+    private JpaUserDetailsService userDetailsService;
+
+    @Mock
+    private UserStatsService userStatsService;
+
     @InjectMocks
     private UserService userService;
 
@@ -37,6 +76,38 @@ class UserServiceTest {
         testUser.setPassword("password");
     }
 
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void isCurrentUser_ShouldAnswerFromPrincipalWithoutLookup() {
+        // Arrange
+        AuthenticatedUser principal = new AuthenticatedUser(1L, "test@example.com", Role.USER);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        // Act & Assert
+        assertThat(userService.isCurrentUser(1L)).isTrue();
+        assertThat(userService.isCurrentUser(2L)).isFalse();
+        verifyNoInteractions(userRepository, userDetailsService);
+    }
+
+    @Test
+    void getCurrentUser_ShouldLoadByPrincipalIdFromCache() {
+        // Arrange
+        AuthenticatedUser principal = new AuthenticatedUser(1L, "test@example.com", Role.USER);
+        when(userDetailsService.loadUserById(1L)).thenReturn(testUser);
+
+        // Act
+        User currentUser = userService.getCurrentUser(principal);
+
+        // Assert
+        assertThat(currentUser).isSameAs(testUser);
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     void getAllUsers_ShouldReturnAllUsers() {
         // Arrange
@@ -51,6 +122,155 @@ class UserServiceTest {
         verify(userRepository, times(1)).findAll();
     }
 
+    @Test
+    void findPage_WhenMoreRowsExist_ShouldReturnNextCursor() {
+        // Arrange
+        UserResponse first = UserResponse.from(testUser);
+        UserResponse second = new UserResponse(2L, "second", "second@example.com", Role.USER, null, null, 0L);
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2), UserResponse.class))
+                .thenReturn(Arrays.asList(first, second));
+
+        // Act
+        CursorPage<UserResponse> page = userService.findPage(null, 1, false, UserField.ALL);
+
+        // Assert
+        assertThat(page.getItems()).containsExactly(first);
+        assertThat(page.getNext()).isEqualTo(CursorUtil.encodeId(1L));
+        assertThat(page.getTotal()).isNull();
+        verify(userRepository, never()).count();
+    }
+
+    @Test
+    void findPage_OnLastPage_ShouldReturnNoCursorAndTotal() {
+        // Arrange
+        UserResponse first = UserResponse.from(testUser);
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(1L, Limit.of(3), UserResponse.class))
+                .thenReturn(Arrays.asList(first));
+        when(userRepository.count()).thenReturn(2L);
+
+        // Act
+        CursorPage<UserResponse> page = userService.findPage(CursorUtil.encodeId(1L), 2, true, UserField.ALL);
+
+        // Assert
+        assertThat(page.getItems()).containsExactly(first);
+        assertThat(page.getNext()).isNull();
+        assertThat(page.getTotal()).isEqualTo(2L);
+    }
+
+    @Test
+    void findPage_WithFields_ShouldSelectRequestedColumnsPlusId() {
+        // Arrange
+        Set<UserField> fields = EnumSet.of(UserField.EMAIL);
+        when(userRepository.findFields(any(), any(), eq(11), eq(EnumSet.of(UserField.ID, UserField.EMAIL))))
+                .thenReturn(new ArrayList<>(List.of(new UserResponse(1L, null, "test@example.com", null, null, null, 0L))));
+
+        // Act
+        CursorPage<UserResponse> page = userService.findPage(null, 10, false, fields);
+
+        // Assert
+        assertThat(page.getItems()).extracting(UserResponse::getEmail).containsExactly("test@example.com");
+        assertThat(page.getItems()).extracting(UserResponse::getId).containsOnlyNulls();
+        verify(userRepository, never()).findByIdGreaterThanOrderByIdAsc(any(), any(), any());
+    }
+
+    @Test
+    void findPage_WithMalformedCursor_ShouldThrow() {
+        assertThatThrownBy(() -> userService.findPage("not-a-cursor", 10, false, UserField.ALL))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void getPageTag_ShouldChangeOnlyWhenPageChanges() {
+        // Arrange
+        UserRepository.VersionView before = version(1L, 3);
+        UserRepository.VersionView same = version(1L, 3);
+        UserRepository.VersionView after = version(1L, 4);
+        when(userRepository.findVersionsByIdGreaterThanOrderByIdAsc(0L, Limit.of(11)))
+                .thenReturn(List.of(before))
+                .thenReturn(List.of(same))
+                .thenReturn(List.of(after));
+
+        // Act
+        String first = userService.getPageTag(null, 10, false, UserField.ALL);
+        String unchanged = userService.getPageTag(null, 10, false, UserField.ALL);
+        String updated = userService.getPageTag(null, 10, false, UserField.ALL);
+
+        // Assert
+        assertThat(unchanged).isEqualTo(first);
+        assertThat(updated).isNotEqualTo(first);
+        assertThat(first).startsWith("\"").endsWith("\"");
+        assertThat(userService.getPageTag(null, 10, false, EnumSet.of(UserField.ID))).isNotEqualTo(first);
+    }
+
+    @Test
+    void getVersion_WhenUserDoesNotExist_ShouldThrow() {
+        when(userRepository.findVersionById(999L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> userService.getVersion(999L))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void search_WhenMoreRowsExist_ShouldReturnCursorOnSortValue() {
+        // Arrange
+        UserResponse first = new UserResponse(1L, "alice", null, null, null, null, 0L);
+        UserResponse second = new UserResponse(2L, "alicia", null, null, null, null, 0L);
+        when(userRepository.findFields(any(), any(), eq(2), any())).thenReturn(Arrays.asList(first, second));
+        UserSearchCriteria criteria = UserSearchCriteria.of("ali", "prefix", Role.USER, "username,desc");
+
+        // Act
+        CursorPage<UserResponse> page = userService.search(criteria, null, 1, false, EnumSet.of(UserField.EMAIL));
+
+        // Assert
+        assertThat(page.getItems()).containsExactly(first);
+        assertThat(page.getNext()).isEqualTo(CursorUtil.encodeKey("username", 1L, "alice"));
+        assertThat(page.getTotal()).isNull();
+        // The cursor needed the id and username, but they were not asked for
+        assertThat(first.getId()).isNull();
+        assertThat(first.getUsername()).isNull();
+        verify(userRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    void search_WithTotal_ShouldCountMatches() {
+        // Arrange
+        UserResponse match = UserResponse.from(testUser);
+        when(userRepository.findFields(any(), any(), eq(11), eq(UserField.ALL))).thenReturn(List.of(match));
+        when(userRepository.count(any(Specification.class))).thenReturn(1L);
+        UserSearchCriteria criteria = UserSearchCriteria.of("example", "contains", null, "id");
+
+        // Act
+        CursorPage<UserResponse> page = userService.search(criteria, null, 10, true, UserField.ALL);
+
+        // Assert
+        assertThat(page.getItems()).containsExactly(match);
+        assertThat(page.getNext()).isNull();
+        assertThat(page.getTotal()).isEqualTo(1L);
+    }
+
+    @Test
+    void search_WithCursorFromAnotherSort_ShouldThrow() {
+        UserSearchCriteria criteria = UserSearchCriteria.of(null, "contains", null, "email");
+
+        assertThatThrownBy(() -> userService.search(criteria, CursorUtil.encodeKey("username", 1L, "alice"), 10, false,
+                UserField.ALL))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void searchCriteria_WithShortSubstring_ShouldBeRejected() {
+        assertThatThrownBy(() -> UserSearchCriteria.of("ab", "contains", null, "id"))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(UserSearchCriteria.of(" AB ", "prefix", null, "id").query()).isEqualTo("ab");
+    }
+
+    @Test
+    void searchCriteria_WithUnknownMatch_ShouldBeRejected() {
+        assertThatThrownBy(() -> UserSearchCriteria.of("alice", "regex", null, "id"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Match must be prefix or contains: regex");
+    }
+
     @Test
     void getUserById_WhenUserExists_ShouldReturnUser() {
         // Arrange
@@ -91,6 +311,197 @@ class UserServiceTest {
         verify(userRepository, times(1)).save(testUser);
     }
 
+    @Test
+    void create_ShouldHashOnceAndInsertWithoutExistenceChecks() {
+        // Arrange
+        when(passwordEncoder.encode("password")).thenReturn("hashed");
+        when(userRepository.saveAndFlush(testUser)).thenReturn(testUser);
+
+        // Act
+        User savedUser = userService.create(testUser);
+
+        // Assert
+        assertThat(savedUser.getPassword()).isEqualTo("hashed");
+        verify(passwordEncoder, times(1)).encode("password");
+        verify(userRepository, never()).existsByUsername(any());
+        verify(userRepository, never()).existsByEmail(any());
+        verify(userStatsService).recordCreated(Role.USER, 1);
+    }
+
+    @Test
+    void update_WhenRoleChanges_ShouldBumpSecurityVersion() {
+        // Arrange
+        testUser.setRole(Role.USER);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.saveAndFlush(testUser)).thenReturn(testUser);
+        User changes = new User();
+        changes.setUsername(testUser.getDisplayUsername());
+        changes.setEmail(testUser.getEmail());
+        changes.setRole(Role.ADMIN);
+
+        // Act
+        User updated = userService.update(1L, changes);
+
+        // Assert
+        assertThat(updated.getSecurityVersion()).isEqualTo(1);
+        verify(userChangeBus).publish(new UserChangeEvent(1L, Set.of("test@example.com"), 1, false));
+        verify(userStatsService).recordRoleChanged(Role.USER, Role.ADMIN);
+    }
+
+    @Test
+    void update_WhenNothingSecurityRelevantChanges_ShouldKeepSecurityVersion() {
+        // Arrange
+        testUser.setRole(Role.USER);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.saveAndFlush(testUser)).thenReturn(testUser);
+        User changes = new User();
+        changes.setUsername("renamed");
+        changes.setEmail(testUser.getEmail());
+        changes.setRole(Role.USER);
+
+        // Act
+        userService.update(1L, changes);
+
+        // Assert
+        assertThat(testUser.getSecurityVersion()).isZero();
+        verify(userChangeBus).publish(new UserChangeEvent(1L, Set.of("test@example.com"), 0, false));
+    }
+
+    @Test
+    void update_WithUnchangedValues_ShouldNotWrite() {
+        // Arrange
+        testUser.setUsername("tester");
+        testUser.setRole(Role.USER);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        User changes = new User();
+        changes.setUsername("tester");
+        changes.setEmail(testUser.getEmail());
+        changes.setRole(Role.USER);
+
+        // Act
+        userService.update(1L, changes);
+
+        // Assert
+        verify(userRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(userChangeBus, userStatsService);
+    }
+
+    @Test
+    void update_WhenEmailChanges_ShouldInvalidateBothEmails() {
+        // Arrange
+        testUser.setRole(Role.USER);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.saveAndFlush(testUser)).thenReturn(testUser);
+        User changes = new User();
+        changes.setUsername(testUser.getDisplayUsername());
+        changes.setEmail("new@example.com");
+        changes.setRole(Role.USER);
+
+        // Act
+        userService.update(1L, changes);
+
+        // Assert
+        verify(userChangeBus).publish(
+                new UserChangeEvent(1L, Set.of("test@example.com", "new@example.com"), 1, false));
+    }
+
+    @Test
+    void patch_ShouldChangeOnlyPresentFields() {
+        // Arrange
+        testUser.setUsername("tester");
+        testUser.setRole(Role.USER);
+        testUser.setVersion(3);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.saveAndFlush(testUser)).thenReturn(testUser);
+        UserPatch patch = new UserPatch();
+        patch.setUsername("renamed");
+
+        // Act
+        User patched = userService.patch(1L, patch, EntityTags.of(1L, 3));
+
+        // Assert
+        assertThat(patched.getDisplayUsername()).isEqualTo("renamed");
+        assertThat(patched.getEmail()).isEqualTo("test@example.com");
+        assertThat(patched.getRole()).isEqualTo(Role.USER);
+        assertThat(patched.getSecurityVersion()).isZero();
+        verify(passwordEncoder, never()).encode(any());
+    }
+
+    @Test
+    void patch_WithStaleIfMatch_ShouldFailWithoutWriting() {
+        // Arrange: same modification time, but another write has bumped the version since
+        testUser.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        testUser.setVersion(4);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        UserPatch patch = new UserPatch();
+        patch.setUsername("renamed");
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.patch(1L, patch, EntityTags.of(1L, 3)))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThat(testUser.getDisplayUsername()).isNotEqualTo("renamed");
+        verify(userRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void patch_WhenNothingChanges_ShouldNotWrite() {
+        // Arrange
+        testUser.setUsername("tester");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        UserPatch patch = new UserPatch();
+        patch.setUsername("tester");
+
+        // Act
+        userService.patch(1L, patch, null);
+
+        // Assert
+        verify(userRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(userChangeBus, userStatsService);
+    }
+
+    @Test
+    void revokeSessions_ShouldBumpSecurityVersionAndPublish() {
+        // Arrange
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(testUser)).thenReturn(testUser);
+
+        // Act
+        userService.revokeSessions(1L);
+
+        // Assert
+        assertThat(testUser.getSecurityVersion()).isEqualTo(1);
+        verify(userChangeBus).publish(new UserChangeEvent(1L, Set.of("test@example.com"), 1, false));
+    }
+
+    @Test
+    void delete_ShouldSoftDeleteInOneStatementAndPublishDeletion() {
+        // Arrange
+        UserRepository.DeletedUserView deleted = mock(UserRepository.DeletedUserView.class);
+        when(deleted.getEmail()).thenReturn("test@example.com");
+        when(deleted.getRole()).thenReturn(Role.USER);
+        when(deleted.getVersion()).thenReturn(1);
+        when(userRepository.softDeleteById(eq(1L), any())).thenReturn(Optional.of(deleted));
+
+        // Act
+        userService.delete(1L);
+
+        // Assert
+        verify(userRepository, never()).delete(any(User.class));
+        verifyNoInteractions(userDetailsService);
+        verify(userStatsService).recordDeleted(Role.USER);
+        verify(userChangeBus).publish(new UserChangeEvent(1L, Set.of("test@example.com"), 1, true));
+    }
+
+    @Test
+    void delete_WhenAlreadyDeleted_ShouldThrowWithoutRecording() {
+        // Arrange
+        when(userRepository.softDeleteById(eq(1L), any())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.delete(1L)).isInstanceOf(ResourceNotFoundException.class);
+        verifyNoInteractions(userStatsService, userChangeBus);
+    }
+
     @Test
     void deleteUser_ShouldCallRepositoryDelete() {
         // Act
@@ -99,4 +510,11 @@ class UserServiceTest {
         // Assert
         verify(userRepository, times(1)).deleteById(1L);
     }
-} 
\ No newline at end of file
+
+    private static UserRepository.VersionView version(Long id, long rowVersion) {
+        UserRepository.VersionView version = mock(UserRepository.VersionView.class);
+        when(version.getId()).thenReturn(id);
+        when(version.getVersion()).thenReturn(rowVersion);
+        return version;
+    }
+}
@@ -0,0 +1,133 @@
+package com.template.msa.service;
+
+import com.template.msa.model.Role;
+import com.template.msa.model.UserDailyStats;
+import com.template.msa.repository.UserDailyStatsRepository;
+import com.template.msa.repository.UserRepository;
+import com.template.msa.repository.UserRoleCountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserStatsReconcilerTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserRoleCountRepository roleCountRepository;
+
+    @Mock
+    private UserDailyStatsRepository dailyStatsRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserStatsReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reconciler = new UserStatsReconciler(userRepository, roleCountRepository, dailyStatsRepository,
+                transactionManager, meterRegistry, 2);
+    }
+
+    @Test
+    void reconcile_WhenAnotherInstanceHoldsTheLock_ShouldSkipTheRun() {
+        // Arrange
+        when(roleCountRepository.tryLockReconciliation()).thenReturn(false);
+
+        // Act
+        reconciler.reconcile();
+
+        // Assert
+        verifyNoInteractions(userRepository, dailyStatsRepository);
+        verify(roleCountRepository, never()).sumByRole();
+        verify(roleCountRepository, never()).increment(any(), anyShort(), anyLong());
+    }
+
+    @Test
+    void reconcile_WithTheLock_ShouldReconcileRoleCountsAndSignups() {
+        // Arrange
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        when(roleCountRepository.tryLockReconciliation()).thenReturn(true);
+
+        // Act
+        reconciler.reconcile();
+
+        // Assert
+        verify(userRepository).countByRole();
+        verify(roleCountRepository).sumByRole();
+        verify(userRepository).countSignupsSince(yesterday.atStartOfDay());
+        verify(dailyStatsRepository).findByDayGreaterThanEqualOrderByDayAsc(yesterday);
+    }
+
+    @Test
+    void reconcileRoleCounts_ShouldApplyDriftAsIncrement() {
+        // Arrange
+        UserRepository.RoleCount actualUsers = roleCount(Role.USER, 100L);
+        UserRepository.RoleCount actualAdmins = roleCount(Role.ADMIN, 2L);
+        UserRepository.RoleCount recordedUsers = roleCount(Role.USER, 97L);
+        UserRepository.RoleCount recordedAdmins = roleCount(Role.ADMIN, 2L);
+        when(userRepository.countByRole()).thenReturn(List.of(actualUsers, actualAdmins));
+        when(roleCountRepository.sumByRole()).thenReturn(List.of(recordedUsers, recordedAdmins));
+
+        // Act
+        reconciler.reconcileRoleCounts();
+
+        // Assert
+        verify(roleCountRepository).increment(Role.USER, (short) 0, 3L);
+        verify(roleCountRepository, never()).increment(eq(Role.ADMIN), anyShort(), anyLong());
+        assertThat(meterRegistry.get("user.stats.corrections").tag("table", "user_role_counts").counter().count())
+                .isEqualTo(3);
+    }
+
+    @Test
+    void reconcileSignups_ShouldOnlyCorrectUndercounts() {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        LocalDate yesterday = today.minusDays(1);
+        UserRepository.DailyRoleCount todaySignups = dailyRoleCount(today, 5L);
+        UserRepository.DailyRoleCount yesterdaySignups = dailyRoleCount(yesterday, 1L);
+        when(userRepository.countSignupsSince(yesterday.atStartOfDay()))
+                .thenReturn(List.of(todaySignups, yesterdaySignups));
+        when(dailyStatsRepository.findByDayGreaterThanEqualOrderByDayAsc(yesterday))
+                .thenReturn(List.of(new UserDailyStats(today, Role.USER, 3, 0),
+                        new UserDailyStats(yesterday, Role.USER, 2, 1)));
+
+        // Act
+        reconciler.reconcileSignups(yesterday);
+
+        // Assert
+        verify(dailyStatsRepository).increment(today, Role.USER, 2, 0);
+        verify(dailyStatsRepository, never()).increment(eq(yesterday), any(), anyLong(), anyLong());
+    }
+
+    private static UserRepository.RoleCount roleCount(Role role, long count) {
+        UserRepository.RoleCount roleCount = mock(UserRepository.RoleCount.class);
+        when(roleCount.getRole()).thenReturn(role);
+        when(roleCount.getCount()).thenReturn(count);
+        return roleCount;
+    }
+
+    private static UserRepository.DailyRoleCount dailyRoleCount(LocalDate day, long count) {
+        UserRepository.DailyRoleCount dailyRoleCount = mock(UserRepository.DailyRoleCount.class);
+        when(dailyRoleCount.getDay()).thenReturn(day);
+        when(dailyRoleCount.getRole()).thenReturn(Role.USER);
+        when(dailyRoleCount.getCount()).thenReturn(count);
+        return dailyRoleCount;
+    }
+}
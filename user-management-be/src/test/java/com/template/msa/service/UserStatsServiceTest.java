@@ -0,0 +1,98 @@
+package com.template.msa.service;
+
+import com.template.msa.dto.UserStats;
+import com.template.msa.model.Role;
+import com.template.msa.model.UserDailyStats;
+import com.template.msa.repository.UserDailyStatsRepository;
+import com.template.msa.repository.UserRepository;
+import com.template.msa.repository.UserRoleCountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserStatsServiceTest {
+
+    @Mock
+    private UserRoleCountRepository roleCountRepository;
+
+    @Mock
+    private UserDailyStatsRepository dailyStatsRepository;
+
+    private UserStatsService userStatsService;
+
+    @BeforeEach
+    void setUp() {
+        userStatsService = new UserStatsService(roleCountRepository, dailyStatsRepository);
+    }
+
+    @Test
+    void recordCreated_ShouldIncrementOneShardAndToday() {
+        // Act
+        userStatsService.recordCreated(Role.USER, 1);
+
+        // Assert
+        verify(roleCountRepository).increment(eq(Role.USER),
+                shortThat(shard -> shard >= 0 && shard < UserStatsService.SHARDS), eq(1L));
+        verify(dailyStatsRepository).increment(LocalDate.now(), Role.USER, 1, 0);
+    }
+
+    @Test
+    void recordDeleted_ShouldDecrementOneShardAndCountTodaysDeletion() {
+        // Act
+        userStatsService.recordDeleted(Role.ADMIN);
+
+        // Assert
+        verify(roleCountRepository).increment(eq(Role.ADMIN), anyShort(), eq(-1L));
+        verify(dailyStatsRepository).increment(LocalDate.now(), Role.ADMIN, 0, 1);
+    }
+
+    @Test
+    void recordRoleChanged_WithSameRole_ShouldNotTouchCounters() {
+        // Act
+        userStatsService.recordRoleChanged(Role.USER, Role.USER);
+
+        // Assert
+        verifyNoInteractions(roleCountRepository);
+    }
+
+    @Test
+    void getStats_ShouldSumRolesAndFillEveryDay() {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        UserRepository.RoleCount users = roleCount(Role.USER, 41L);
+        UserRepository.RoleCount admins = roleCount(Role.ADMIN, 1L);
+        when(roleCountRepository.sumByRole()).thenReturn(List.of(users, admins));
+        when(dailyStatsRepository.findByDayGreaterThanEqualOrderByDayAsc(today.minusDays(2)))
+                .thenReturn(List.of(new UserDailyStats(today, Role.USER, 4, 1),
+                        new UserDailyStats(today, Role.ADMIN, 1, 0)));
+
+        // Act
+        UserStats stats = userStatsService.getStats(3);
+
+        // Assert
+        assertThat(stats.getTotal()).isEqualTo(42);
+        assertThat(stats.getByRole()).containsEntry(Role.USER, 41L).containsEntry(Role.ADMIN, 1L);
+        assertThat(stats.getDays()).extracting(UserStats.Day::getDay)
+                .containsExactly(today.minusDays(2), today.minusDays(1), today);
+        assertThat(stats.getDays().get(2).getSignups()).isEqualTo(5);
+        assertThat(stats.getDays().get(2).getDeletions()).isEqualTo(1);
+        assertThat(stats.getDays().get(0).getSignups()).isZero();
+    }
+
+    private static UserRepository.RoleCount roleCount(Role role, long count) {
+        UserRepository.RoleCount roleCount = mock(UserRepository.RoleCount.class);
+        when(roleCount.getRole()).thenReturn(role);
+        when(roleCount.getCount()).thenReturn(count);
+        return roleCount;
+    }
+}
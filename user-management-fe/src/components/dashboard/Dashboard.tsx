@@ -1,4 +1,4 @@
-import React from 'react';
+import React, { useEffect, useState } from 'react';
 import {
   CCard,
   CCardBody,
@@ -7,13 +7,30 @@ import {
   CRow,
   CWidgetStatsF,
 } from '@coreui/react';
-import { cilPeople, cilUser, cilLockLocked } from '@coreui/icons';
+import { cilPeople, cilUser, cilLockLocked, cilUserPlus } from '@coreui/icons';
 import CIcon from '@coreui/icons-react';
 import { useAppSelector } from '../../hooks/redux';
+import { apiService } from '../../services/api';
+import { UserStats } from '../../types';
+
+const STATS_DAYS = 30;
 
 const Dashboard: React.FC = () => {
   const { user } = useAppSelector((state) => state.auth);
-  const { users } = useAppSelector((state) => state.user);
+  const [stats, setStats] = useState<UserStats | null>(null);
+
+  // Served from server-side counters, so this stays cheap however many users exist
+  useEffect(() => {
+    if (user?.role !== 'ADMIN') {
+      return;
+    }
+    apiService
+      .get<UserStats>('/users/stats', { params: { days: STATS_DAYS } })
+      .then((response) => setStats(response.data))
+      .catch(() => setStats(null));
+  }, [user?.role]);
+
+  const recentSignups = stats?.days.reduce((sum, day) => sum + day.signups, 0);
 
   return (
     <CRow>
@@ -29,7 +46,15 @@ const Dashboard: React.FC = () => {
                   className="mb-3"
                   icon={<CIcon icon={cilPeople} height={24} />}
                   title="Total Users"
-                  value={users.length.toString()}
+                  value={stats ? stats.total.toString() : '-'}
+                />
+              </CCol>
+              <CCol sm={6} lg={3}>
+                <CWidgetStatsF
+                  className="mb-3"
+                  icon={<CIcon icon={cilUserPlus} height={24} />}
+                  title={`Signups (${STATS_DAYS} days)`}
+                  value={recentSignups !== undefined ? recentSignups.toString() : '-'}
                 />
               </CCol>
               <CCol sm={6} lg={3}>
@@ -56,4 +81,4 @@ const Dashboard: React.FC = () => {
   );
 };
 
-export default Dashboard; 
\ No newline at end of file
+export default Dashboard;
@@ -1,4 +1,4 @@
-import React, { useEffect } from 'react';
+import React, { useEffect, useState } from 'react';
 import {
   CCard,
   CCardBody,
@@ -14,6 +14,8 @@ import {
   CButton,
   CSpinner,
   CAlert,
+  CFormInput,
+  CFormSelect,
 } from '@coreui/react';
 import { cilPencil, cilTrash } from '@coreui/icons';
 import CIcon from '@coreui/icons-react';
@@ -24,11 +26,19 @@ import { useNavigate } from 'react-router-dom';
 const UserList: React.FC = () => {
   const dispatch = useAppDispatch();
   const navigate = useNavigate();
-  const { users, loading, error } = useAppSelector((state) => state.users);
+  const { users, nextCursor, hasMore, loading, error } = useAppSelector((state) => state.users);
+  const [query, setQuery] = useState('');
+  const [role, setRole] = useState('');
 
+  // Debounce typing so each keystroke does not become a request
   useEffect(() => {
-    dispatch(fetchUsers());
-  }, [dispatch]);
+    const timer = setTimeout(() => dispatch(fetchUsers({ search: { q: query, role } })), 300);
+    return () => clearTimeout(timer);
+  }, [dispatch, query, role]);
+
+  const handleLoadMore = () => {
+    dispatch(fetchUsers({ cursor: nextCursor, search: { q: query, role } }));
+  };
 
   const handleEdit = (userId: number) => {
     navigate(`/users/${userId}/edit`);
@@ -40,7 +50,7 @@ const UserList: React.FC = () => {
     }
   };
 
-  if (loading) {
+  if (loading && users.length === 0 && !query && !role) {
     return (
       <CRow>
         <CCol xs={12}>
@@ -76,6 +86,23 @@ const UserList: React.FC = () => {
             </CButton>
           </CCardHeader>
           <CCardBody>
+            <CRow className="mb-3">
+              <CCol md={8}>
+                <CFormInput
+                  type="search"
+                  placeholder="Search by username or email"
+                  value={query}
+                  onChange={(e) => setQuery(e.target.value)}
+                />
+              </CCol>
+              <CCol md={4}>
+                <CFormSelect aria-label="Role" value={role} onChange={(e) => setRole(e.target.value)}>
+                  <option value="">All roles</option>
+                  <option value="USER">User</option>
+                  <option value="ADMIN">Admin</option>
+                </CFormSelect>
+              </CCol>
+            </CRow>
             <CTable hover responsive>
               <CTableHead>
                 <CTableRow>
@@ -118,6 +145,13 @@ const UserList: React.FC = () => {
                 ))}
               </CTableBody>
             </CTable>
+            {hasMore && (
+              <div className="d-flex justify-content-center">
+                <CButton color="secondary" variant="outline" disabled={loading} onClick={handleLoadMore}>
+                  {loading ? <CSpinner size="sm" /> : 'Load more'}
+                </CButton>
+              </div>
+            )}
           </CCardBody>
         </CCard>
       </CCol>
@@ -22,14 +22,26 @@ export const login = createAsyncThunk(
   'auth/login',
   async (credentials: { username: string; password: string }) => {
     const response = await axios.post('/api/auth/login', credentials);
-    const { token, user } = response.data;
+    const { token, refreshToken, user } = response.data;
     localStorage.setItem('token', token);
+    localStorage.setItem('refreshToken', refreshToken);
     return { token, user };
   }
 );
 
 export const logout = createAsyncThunk('auth/logout', async () => {
+  const token = localStorage.getItem('token');
+  const refreshToken = localStorage.getItem('refreshToken');
   localStorage.removeItem('token');
+  localStorage.removeItem('refreshToken');
+  if (token || refreshToken) {
+    // Revoke the tokens server-side as well; the local session ends either way
+    await axios
+      .post('/api/v1/auth/logout', refreshToken ? { refreshToken } : null, {
+        headers: token ? { Authorization: `Bearer ${token}` } : {},
+      })
+      .catch(() => undefined);
+  }
 });
 
 const authSlice = createSlice({
@@ -1,9 +1,15 @@
 import { createSlice, createAsyncThunk } from '@reduxjs/toolkit';
 import { apiService } from '../../services/api';
-import { User } from '../../types';
+import { CursorPage, User, UserSearch } from '../../types';
+
+export const USER_PAGE_SIZE = 50;
+// Substring search needs three characters server-side; shorter queries match as prefixes
+const MIN_CONTAINS_LENGTH = 3;
 
 interface UserState {
   users: User[];
+  nextCursor: string | null;
+  hasMore: boolean;
   currentUser: User | null;
   loading: boolean;
   error: string | null;
@@ -11,16 +17,29 @@ interface UserState {
 
 const initialState: UserState = {
   users: [],
+  nextCursor: null,
+  hasMore: true,
   currentUser: null,
   loading: false,
   error: null,
 };
 
+// Pass the cursor from the previous page to append the next one; omit it to start over.
+// With a query or role the server-side search is used, and the same search must be passed with its cursor.
 export const fetchUsers = createAsyncThunk(
   'users/fetchUsers',
-  async () => {
-    const response = await apiService.get('/users');
-    return response.data;
+  async ({ cursor, search }: { cursor?: string | null; search?: UserSearch } = {}) => {
+    const q = search?.q?.trim();
+    const filtered = Boolean(q || search?.role);
+    const response = await apiService.get<CursorPage<User>>(filtered ? '/users/search' : '/users', {
+      params: {
+        limit: USER_PAGE_SIZE,
+        ...(cursor ? { cursor } : {}),
+        ...(q ? { q, match: q.length < MIN_CONTAINS_LENGTH ? 'prefix' : 'contains' } : {}),
+        ...(search?.role ? { role: search.role } : {}),
+      },
+    });
+    return { page: response.data, append: Boolean(cursor) };
   }
 );
 
@@ -76,7 +95,10 @@ const userSlice = createSlice({
       })
       .addCase(fetchUsers.fulfilled, (state, action) => {
         state.loading = false;
-        state.users = action.payload;
+        const { page, append } = action.payload;
+        state.users = append ? state.users.concat(page.items) : page.items;
+        state.nextCursor = page.next;
+        state.hasMore = page.next !== null;
       })
       .addCase(fetchUsers.rejected, (state, action) => {
         state.loading = false;
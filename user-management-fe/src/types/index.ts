@@ -38,6 +38,23 @@ export interface ApiResponse<T> {
   status: number;
 }
 
+export interface CursorPage<T> {
+  items: T[];
+  next: string | null;
+  total?: number | null;
+}
+
+export interface UserSearch {
+  q?: string;
+  role?: string;
+}
+
+export interface UserStats {
+  total: number;
+  byRole: Record<string, number>;
+  days: { day: string; signups: number; deletions: number }[];
+}
+
 export interface ApiError {
   message: string;
   status: number;